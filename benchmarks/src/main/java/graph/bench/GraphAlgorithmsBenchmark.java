@@ -0,0 +1,90 @@
+package graph.bench;
+
+import graph.common.CsrGraph;
+import graph.common.Graph;
+import graph.common.Metrics;
+import graph.dagsp.DAGShortestPath;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GraphAlgorithmsBenchmark {
+    @Param({"1000", "100000"})
+    public int vertices;
+
+    @Param({"sparse", "dense"})
+    public String density;
+
+    @Param({"dag", "scc", "mixed"})
+    public String structure;
+
+    private CsrGraph graph;
+    private TarjanSCC tarjan;
+    private CsrGraph condensation;
+    private List<Integer> topoOrder;
+    private int source;
+    private int target;
+    private DAGShortestPath pointToPoint;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = GraphWorkload.build(vertices, density, structure);
+        tarjan = new TarjanSCC(graph, Metrics.disabled());
+        tarjan.findSccs();
+        condensation = tarjan.buildCondensation();
+        topoOrder = new TopologicalSort(condensation, Metrics.disabled()).sort();
+        source = tarjan.getSccId()[0];
+        target = tarjan.getSccId()[vertices - 1];
+        pointToPoint = new DAGShortestPath(condensation, Metrics.disabled(), topoOrder);
+    }
+
+    @Benchmark
+    public List<List<Integer>> tarjanFindSccs() {
+        return new TarjanSCC(graph, Metrics.disabled()).findSccs();
+    }
+
+    @Benchmark
+    public Graph buildCondensationGraph() {
+        return tarjan.buildCondensationGraph();
+    }
+
+    @Benchmark
+    public CsrGraph buildCondensationCsr() {
+        return tarjan.buildCondensation();
+    }
+
+    @Benchmark
+    public List<Integer> topologicalSort() {
+        return new TopologicalSort(condensation, Metrics.disabled()).sort();
+    }
+
+    @Benchmark
+    public IntBuffer dagShortestPaths() {
+        DAGShortestPath paths = new DAGShortestPath(condensation, Metrics.disabled(), topoOrder);
+        paths.findShortestPaths(source);
+        return paths.distances();
+    }
+
+    @Benchmark
+    public IntBuffer dagLongestPaths() {
+        DAGShortestPath paths = new DAGShortestPath(condensation, Metrics.disabled(), topoOrder);
+        paths.findLongestPaths(source);
+        return paths.distances();
+    }
+
+    @Benchmark
+    public int dagPointToPoint() {
+        pointToPoint.findShortestPath(source, target);
+        return pointToPoint.getDistance(target);
+    }
+}
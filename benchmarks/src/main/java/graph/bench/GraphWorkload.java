@@ -0,0 +1,52 @@
+package graph.bench;
+
+import graph.common.CsrGraph;
+import graph.common.DatasetGenerator;
+import graph.common.Edge;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds benchmark graphs through {@link DatasetGenerator} with a fixed seed, so every
+ * fork and every release measures the same inputs.
+ */
+public final class GraphWorkload {
+    public static final long SEED = 20241017L;
+
+    private GraphWorkload() {
+    }
+
+    public static int edgeCount(int vertices, String density) {
+        switch (density) {
+            case "sparse":
+                return vertices * 2;
+            case "dense":
+                return vertices * 8;
+            default:
+                throw new IllegalArgumentException("Unknown density: " + density);
+        }
+    }
+
+    public static CsrGraph build(int vertices, String density, String structure) {
+        Random random = new Random(SEED);
+        int edges = edgeCount(vertices, density);
+        List<Edge> list;
+        switch (structure) {
+            case "dag":
+                list = DatasetGenerator.generateDAG(vertices, edges, random);
+                break;
+            case "scc":
+                int numScc = 10;
+                int sccSize = Math.max(2, vertices / (2 * numScc));
+                list = DatasetGenerator.generateSCC(vertices, edges, numScc, sccSize, random);
+                break;
+            case "mixed":
+                list = DatasetGenerator.generateMixed(vertices, edges, Math.max(1, vertices / 100), random);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown structure: " + structure);
+        }
+        return DatasetGenerator.toCsr(vertices, list);
+    }
+}
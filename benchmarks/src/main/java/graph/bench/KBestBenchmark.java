@@ -0,0 +1,54 @@
+package graph.bench;
+
+import graph.common.CsrGraph;
+import graph.common.GraphGenerator;
+import graph.common.Metrics;
+import graph.dagsp.KBestPaths;
+import graph.topo.TopologicalSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full K-longest sweep from the first vertex in topological order, plus walking every one of the
+ * K paths to the last vertex. Per-op time divided by {@code K * V} gives list entries per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class KBestBenchmark {
+    @Param({"1", "10", "100", "1000"})
+    public int k;
+
+    @Param({"10000"})
+    public int vertices;
+
+    private KBestPaths engine;
+    private int source;
+    private int target;
+    private int[] buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = new GraphGenerator(GraphWorkload.SEED).dag(vertices, vertices * 5);
+        List<Integer> topoOrder = new TopologicalSort(graph, Metrics.disabled()).sort();
+        source = topoOrder.get(0);
+        target = topoOrder.get(topoOrder.size() - 1);
+        engine = new KBestPaths(graph, Metrics.disabled(), topoOrder, k);
+        buffer = new int[vertices];
+    }
+
+    @Benchmark
+    public long sweepAndEnumerate() {
+        engine.findLongestPaths(source);
+        long checksum = 0;
+        for (int r = 0; r < engine.pathCount(target); r++) {
+            checksum += engine.reconstructPath(target, r, buffer);
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,73 @@
+package graph.bench;
+
+import graph.cache.GraphAnalysis;
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.reach.ReachabilityIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point query cost of {@link ReachabilityIndex} on uniformly random vertex pairs, per query. BITSET
+ * is forced regardless of the component count, so the large dense DAG needs the bigger heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+public class ReachabilityBenchmark {
+    private static final int QUERIES = 1 << 16;
+    private static final int BATCH = 1024;
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    @Param({"sparse", "dense"})
+    public String density;
+
+    @Param({"dag", "scc", "mixed"})
+    public String structure;
+
+    @Param({"BITSET", "GRAIL"})
+    public ReachabilityIndex.Mode mode;
+
+    private ReachabilityIndex index;
+    private int[] from;
+    private int[] to;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = GraphWorkload.build(vertices, density, structure);
+        GraphAnalysis analysis = GraphAnalysis.compute(null, graph, Metrics.disabled());
+        int bitsetLimit = mode == ReachabilityIndex.Mode.BITSET ? Integer.MAX_VALUE : 0;
+        index = new ReachabilityIndex(analysis.getCondensation(), analysis.getSccId(), analysis.getTopoOrder(),
+                Metrics.disabled(), bitsetLimit, ReachabilityIndex.DEFAULT_LABELS, GraphWorkload.SEED);
+        SplittableRandom random = new SplittableRandom(GraphWorkload.SEED);
+        from = new int[QUERIES];
+        to = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            from[q] = random.nextInt(vertices);
+            to[q] = random.nextInt(vertices);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int randomPairs() {
+        int reachable = 0;
+        int q = next;
+        for (int i = 0; i < BATCH; i++) {
+            if (index.canReach(from[q], to[q])) {
+                reachable++;
+            }
+            q = (q + 1) & (QUERIES - 1);
+        }
+        next = q;
+        return reachable;
+    }
+}
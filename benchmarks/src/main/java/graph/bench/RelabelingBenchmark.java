@@ -0,0 +1,94 @@
+package graph.bench;
+
+import graph.cache.GraphAnalysis;
+import graph.common.CsrGraph;
+import graph.common.GraphGenerator;
+import graph.common.Metrics;
+import graph.common.VertexRelabeling;
+import graph.scc.SccPartition;
+import graph.scc.TarjanSCC;
+import graph.sssp.SccDijkstra;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.LongBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarjan and vertex-level SSSP on a large graph whose ids were shuffled (as an arbitrary exporter
+ * would leave them) versus the same graph relabeled. Run with {@code -prof perfnorm} where perf is
+ * available to see the L1/LLC miss counts behind the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RelabelingBenchmark {
+    @Param({"1000000"})
+    public int vertices;
+
+    @Param({"shuffled", "bfs", "degree", "condensation"})
+    public String order;
+
+    private CsrGraph graph;
+    private SccDijkstra sssp;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph generated = new GraphGenerator(GraphWorkload.SEED)
+                .plantedScc(vertices, vertices * 4, vertices / 1000, 50);
+        int[] permutation = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            permutation[v] = v;
+        }
+        SplittableRandom random = new SplittableRandom(GraphWorkload.SEED);
+        for (int v = vertices - 1; v > 0; v--) {
+            int j = random.nextInt(v + 1);
+            int t = permutation[v];
+            permutation[v] = permutation[j];
+            permutation[j] = t;
+        }
+        VertexRelabeling shuffle = VertexRelabeling.fromNewIds(permutation);
+        graph = shuffle.apply(generated);
+        source = shuffle.toNew(0);
+
+        GraphAnalysis analysis = GraphAnalysis.compute(null, graph, Metrics.disabled());
+        VertexRelabeling relabeling;
+        switch (order) {
+            case "shuffled":
+                relabeling = null;
+                break;
+            case "bfs":
+                relabeling = VertexRelabeling.bfs(graph);
+                break;
+            case "degree":
+                relabeling = VertexRelabeling.byDegree(graph);
+                break;
+            case "condensation":
+                relabeling = VertexRelabeling.byComponentOrder(analysis.getSccId(), analysis.getTopoOrder());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown order: " + order);
+        }
+        if (relabeling != null) {
+            graph = relabeling.apply(graph);
+            analysis = analysis.relabel(relabeling);
+            source = relabeling.toNew(source);
+        }
+        sssp = new SccDijkstra(graph, Metrics.disabled(), analysis);
+    }
+
+    @Benchmark
+    public SccPartition tarjan() {
+        return new TarjanSCC(graph, Metrics.disabled()).findPartition();
+    }
+
+    @Benchmark
+    public LongBuffer vertexShortestPaths() {
+        sssp.findShortestPaths(source);
+        return sssp.distances();
+    }
+}
@@ -0,0 +1,57 @@
+package graph.bench;
+
+import graph.common.CsrGraph;
+import graph.common.GraphGenerator;
+import graph.common.Metrics;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.RelaxationKernel;
+import graph.topo.TopologicalSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs Vector API edge relaxation on dense DAGs. The vector kernel is only picked up when the
+ * main artifact was installed with {@code -Pvector}; otherwise both params measure the scalar loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class RelaxationBenchmark {
+    @Param({"16", "64", "256"})
+    public int averageDegree;
+
+    @Param({"scalar", "best"})
+    public String kernel;
+
+    private CsrGraph graph;
+    private List<Integer> topoOrder;
+    private RelaxationKernel relaxation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int vertices = 4000;
+        graph = new GraphGenerator(GraphWorkload.SEED).dag(vertices, vertices * averageDegree);
+        topoOrder = new TopologicalSort(graph, Metrics.disabled()).sort();
+        relaxation = kernel.equals("scalar") ? RelaxationKernel.scalar() : RelaxationKernel.best();
+    }
+
+    @Benchmark
+    public IntBuffer shortestPaths() {
+        DAGShortestPath paths = new DAGShortestPath(graph, Metrics.disabled(), topoOrder, relaxation);
+        paths.findShortestPaths(topoOrder.get(0));
+        return paths.distances();
+    }
+
+    @Benchmark
+    public IntBuffer longestPaths() {
+        DAGShortestPath paths = new DAGShortestPath(graph, Metrics.disabled(), topoOrder, relaxation);
+        paths.findLongestPaths(topoOrder.get(0));
+        return paths.distances();
+    }
+}
@@ -0,0 +1,129 @@
+package graph.bench;
+
+import graph.common.CsrGraph;
+import graph.common.GraphGenerator;
+import graph.common.Metrics;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.DoubleSemiring;
+import graph.dagsp.LongSemiring;
+import graph.dagsp.SemiringDAGPaths;
+import graph.topo.TopologicalSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semiring engine against the dedicated int pass of {@link DAGShortestPath} on the same DAG.
+ * With {@code mixed=true} every semiring, including three user-defined ones that take the generic
+ * interface loop, runs in the fork before measurement, as when several analyses share one JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SemiringBenchmark {
+    @Param({"min-plus", "max-plus", "bottleneck", "count", "double-min-plus", "custom-min-plus"})
+    public String semiring;
+
+    @Param({"false", "true"})
+    public boolean mixed;
+
+    private SemiringDAGPaths engine;
+    private DAGShortestPath baseline;
+    private LongSemiring longSemiring;
+    private DoubleSemiring doubleSemiring;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int vertices = 100_000;
+        CsrGraph graph = new GraphGenerator(GraphWorkload.SEED).dag(vertices, vertices * 8);
+        List<Integer> topoOrder = new TopologicalSort(graph, Metrics.disabled()).sort();
+        source = topoOrder.get(0);
+        engine = new SemiringDAGPaths(graph, Metrics.disabled(), topoOrder);
+        baseline = new DAGShortestPath(graph, Metrics.disabled(), topoOrder);
+        switch (semiring) {
+            case "min-plus":
+                longSemiring = LongSemiring.MIN_PLUS;
+                break;
+            case "max-plus":
+                longSemiring = LongSemiring.MAX_PLUS;
+                break;
+            case "bottleneck":
+                longSemiring = LongSemiring.BOTTLENECK;
+                break;
+            case "count":
+                longSemiring = LongSemiring.countingModulo(1_000_000_007L);
+                break;
+            case "double-min-plus":
+                doubleSemiring = DoubleSemiring.MIN_PLUS;
+                break;
+            case "custom-min-plus":
+                longSemiring = new Custom(true, false);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown semiring: " + semiring);
+        }
+        if (mixed) {
+            LongSemiring[] all = {LongSemiring.MIN_PLUS, LongSemiring.MAX_PLUS, LongSemiring.BOTTLENECK,
+                    LongSemiring.countingModulo(1_000_000_007L), new Custom(true, false),
+                    new Custom(false, false), new Custom(false, true)};
+            for (int round = 0; round < 20; round++) {
+                for (LongSemiring s : all) {
+                    engine.run(s, source);
+                }
+                engine.run(DoubleSemiring.MIN_PLUS, source);
+                engine.run(DoubleSemiring.MAX_PLUS, source);
+                engine.run(DoubleSemiring.BOTTLENECK, source);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object semiringPass() {
+        return longSemiring != null ? engine.run(longSemiring, source) : engine.run(doubleSemiring, source);
+    }
+
+    @Benchmark
+    public IntBuffer intShortestPass() {
+        baseline.findShortestPaths(source);
+        return baseline.distances();
+    }
+
+    /**
+     * Min-plus, max-plus or bottleneck as a user class, so the engine cannot pick a built-in loop.
+     */
+    private static final class Custom implements LongSemiring {
+        private final boolean minimize;
+        private final boolean bottleneck;
+
+        Custom(boolean minimize, boolean bottleneck) {
+            this.minimize = minimize;
+            this.bottleneck = bottleneck;
+        }
+
+        public long zero() {
+            return minimize ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+
+        public long one() {
+            return bottleneck ? Long.MAX_VALUE : 0;
+        }
+
+        public long plus(long a, long b) {
+            return minimize ? Math.min(a, b) : Math.max(a, b);
+        }
+
+        public long times(long a, int weight) {
+            return bottleneck ? Math.min(a, weight) : LongSemiring.saturatingAdd(a, weight);
+        }
+
+        public String name() {
+            return "custom";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package graph.bench;
+
+import graph.cache.GraphAnalysis;
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.sssp.Dijkstra;
+import graph.sssp.SccDijkstra;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.LongBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain Dijkstra vs the condensation-ordered {@link SccDijkstra}. The SCC analysis is built once
+ * in setup, as it would come from the analysis cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SsspBenchmark {
+    @Param({"100000"})
+    public int vertices;
+
+    @Param({"sparse", "dense"})
+    public String density;
+
+    @Param({"dag", "scc", "mixed"})
+    public String structure;
+
+    private Dijkstra dijkstra;
+    private SccDijkstra sccDijkstra;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsrGraph graph = GraphWorkload.build(vertices, density, structure);
+        dijkstra = new Dijkstra(graph, Metrics.disabled());
+        GraphAnalysis analysis = GraphAnalysis.compute(null, graph, Metrics.disabled());
+        sccDijkstra = new SccDijkstra(graph, Metrics.disabled(), analysis);
+    }
+
+    @Benchmark
+    public LongBuffer plainDijkstra() {
+        dijkstra.findShortestPaths(0);
+        return dijkstra.distances();
+    }
+
+    @Benchmark
+    public LongBuffer condensationDijkstra() {
+        sccDijkstra.findShortestPaths(0);
+        return sccDijkstra.distances();
+    }
+}
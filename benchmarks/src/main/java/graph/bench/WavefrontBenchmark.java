@@ -0,0 +1,54 @@
+package graph.bench;
+
+import graph.common.CsrGraph;
+import graph.common.GraphGenerator;
+import graph.common.Metrics;
+import graph.dagsp.DAGShortestPath;
+import graph.dagsp.WavefrontDAGPaths;
+import graph.topo.TopologicalSort;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential push relaxation vs level-parallel pull relaxation on a wide layered DAG, from a
+ * vertex of the first layer. The speedup scales with the common pool's parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WavefrontBenchmark {
+    @Param({"1000", "10000"})
+    public int width;
+
+    private DAGShortestPath sequential;
+    private WavefrontDAGPaths wavefront;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int layers = 50;
+        CsrGraph graph = new GraphGenerator(GraphWorkload.SEED).layered(layers, width, layers * width * 8);
+        List<Integer> topoOrder = new TopologicalSort(graph, Metrics.disabled()).sort();
+        source = 0;
+        sequential = new DAGShortestPath(graph, Metrics.disabled(), topoOrder);
+        wavefront = new WavefrontDAGPaths(graph, Metrics.disabled(), topoOrder);
+    }
+
+    @Benchmark
+    public IntBuffer sequentialPush() {
+        sequential.findShortestPaths(source);
+        return sequential.distances();
+    }
+
+    @Benchmark
+    public IntBuffer wavefrontPull() {
+        wavefront.findShortestPaths(source);
+        return wavefront.distances();
+    }
+}
@@ -5,7 +5,9 @@ import graph.scc.TarjanSCC;
 import graph.topo.TopologicalSort;
 import graph.dagsp.DAGShortestPath;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 public class Main {
@@ -25,11 +27,14 @@ public class Main {
     };
 
     public static void main(String[] args) {
-        try {
-            DatasetGenerator.generateAll();
-        } catch (IOException e) {
-            System.err.println("Error generating datasets: " + e.getMessage());
-            return;
+        // Regenerate only when a dataset is missing, so existing files (and edits to them) are kept.
+        if (Arrays.stream(DATASETS).anyMatch(file -> !new File(file).exists())) {
+            try {
+                DatasetGenerator.generateAll();
+            } catch (IOException e) {
+                System.err.println("Error generating datasets: " + e.getMessage());
+                return;
+            }
         }
 
         for (String filePath : DATASETS) {
@@ -102,7 +107,7 @@ public class Main {
         }
         Metrics shortestPathMetrics = new Metrics();
         DAGShortestPath shortestPath = new DAGShortestPath(condensationGraph, shortestPathMetrics, topoOrder);
-        shortestPath.findShortestPaths(sccSourceId);
+        shortestPath.findShortestPath(sccSourceId, sccTargetId);
 
         List<Integer> path = shortestPath.reconstructPath(sccTargetId);
 
@@ -114,7 +119,7 @@ public class Main {
 
         Metrics longestPathMetrics = new Metrics();
         DAGShortestPath longestPath = new DAGShortestPath(condensationGraph, longestPathMetrics, topoOrder);
-        longestPath.findLongestPaths(sccSourceId);
+        longestPath.findLongestPath(sccSourceId, sccTargetId);
 
         List<Integer> criticalPath = longestPath.reconstructPath(sccTargetId);
 
@@ -0,0 +1,460 @@
+package graph;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import graph.cache.AnalysisCache;
+import graph.cache.GraphAnalysis;
+import graph.common.*;
+import graph.dagsp.DAGShortestPath;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batch runner for many graph files: loading and DOT export run on an I/O pool, SCC / topological
+ * sort / path passes on a compute pool sized to the CPU count, and stages of different datasets
+ * overlap. At most {@code maxInFlight} datasets are held in memory at once. Results and per-phase
+ * timings are written to a CSV or JSON summary (chosen by the file extension).
+ * <pre>
+ * PipelineRunner [--input data/ | --input 'data/large_*.json'] [--out-dir target/pipeline]
+ *                [--summary target/pipeline/summary.csv] [--io-threads 4] [--compute-threads N]
+ *                [--max-in-flight N] [--no-dot] [--cache target/analysis-cache]
+ *                [--relabel bfs|degree]
+ * </pre>
+ * With {@code --relabel} every graph is renamed into a cache-friendlier vertex order before the
+ * SCC pass, and results are mapped back to the original ids.
+ */
+public class PipelineRunner {
+    public static final String DEFAULT_INPUT = "data/";
+    public static final String DEFAULT_OUT_DIR = "target/pipeline";
+
+    private static final String UNREACHABLE = "";
+    private static final long CACHE_MEMORY_BYTES = 256L << 20;
+
+    private final ExecutorService ioPool;
+    private final ExecutorService computePool;
+    private final Semaphore inFlight;
+    private final Path outDir;
+    private final boolean exportDot;
+    private final AnalysisCache cache;
+    private final VertexRelabeling.Strategy relabel;
+
+    /**
+     * Outcome of one dataset; {@code error} is non-null if any stage failed.
+     */
+    public static class DatasetResult {
+        public final String file;
+        public int vertices;
+        public int edges;
+        public int source;
+        public int target;
+        public int sccCount;
+        public int largestScc;
+        public int condensationVertices;
+        public int condensationEdges;
+        public String shortestDistance = UNREACHABLE;
+        public String longestDistance = UNREACHABLE;
+        public long loadNanos;
+        public long sccNanos;
+        public long condensationNanos;
+        public long topoNanos;
+        public long pathNanos;
+        public long edgesProcessed;
+        public long relaxations;
+        public String error;
+
+        DatasetResult(String file) {
+            this.file = file;
+        }
+    }
+
+    private static final class Loaded {
+        final DatasetResult result;
+        final DataLoader.GraphFile file;
+        CsrGraph condensation;
+        List<List<Integer>> sccs;
+
+        Loaded(DatasetResult result, DataLoader.GraphFile file) {
+            this.result = result;
+            this.file = file;
+        }
+    }
+
+    public PipelineRunner(int ioThreads, int computeThreads, int maxInFlight, Path outDir, boolean exportDot) {
+        this(ioThreads, computeThreads, maxInFlight, outDir, exportDot, null);
+    }
+
+    /**
+     * @param cache reuses SCC, condensation and topological order of unchanged graphs; may be {@code null}
+     */
+    public PipelineRunner(int ioThreads, int computeThreads, int maxInFlight, Path outDir, boolean exportDot,
+                          AnalysisCache cache) {
+        this(ioThreads, computeThreads, maxInFlight, outDir, exportDot, cache, null);
+    }
+
+    /**
+     * @param relabel vertex order to run the analysis in ({@code BFS} or {@code DEGREE}); {@code null} keeps
+     *                the ids from the file
+     */
+    public PipelineRunner(int ioThreads, int computeThreads, int maxInFlight, Path outDir, boolean exportDot,
+                          AnalysisCache cache, VertexRelabeling.Strategy relabel) {
+        if (relabel == VertexRelabeling.Strategy.CONDENSATION) {
+            throw new IllegalArgumentException("Condensation order needs the SCC pass it would speed up; "
+                    + "use bfs or degree");
+        }
+        this.cache = cache;
+        this.relabel = relabel;
+        this.ioPool = Executors.newFixedThreadPool(ioThreads, namedThreads("pipeline-io"));
+        this.computePool = Executors.newFixedThreadPool(computeThreads, namedThreads("pipeline-compute"));
+        this.inFlight = new Semaphore(Math.max(maxInFlight, 1));
+        this.outDir = outDir;
+        this.exportDot = exportDot;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String input = DEFAULT_INPUT;
+        Path outDir = Paths.get(DEFAULT_OUT_DIR);
+        Path summary = null;
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int ioThreads = 4;
+        int computeThreads = cpus;
+        int maxInFlight = 2 * cpus;
+        boolean exportDot = true;
+        Path cacheDir = null;
+        VertexRelabeling.Strategy relabel = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input":
+                    input = args[++i];
+                    break;
+                case "--out-dir":
+                    outDir = Paths.get(args[++i]);
+                    break;
+                case "--summary":
+                    summary = Paths.get(args[++i]);
+                    break;
+                case "--io-threads":
+                    ioThreads = Integer.parseInt(args[++i]);
+                    break;
+                case "--compute-threads":
+                    computeThreads = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-in-flight":
+                    maxInFlight = Integer.parseInt(args[++i]);
+                    break;
+                case "--no-dot":
+                    exportDot = false;
+                    break;
+                case "--cache":
+                    cacheDir = Paths.get(args[++i]);
+                    break;
+                case "--relabel":
+                    String strategy = args[++i];
+                    if (!strategy.equalsIgnoreCase("bfs") && !strategy.equalsIgnoreCase("degree")) {
+                        System.err.println("Unknown relabel strategy: " + strategy + " (expected bfs or degree)");
+                        return;
+                    }
+                    relabel = VertexRelabeling.Strategy.parse(strategy);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        if (summary == null) {
+            summary = outDir.resolve("summary.csv");
+        }
+
+        List<Path> files = resolveInputs(input);
+        if (files.isEmpty()) {
+            System.err.println("No graph files match " + input);
+            return;
+        }
+        AnalysisCache cache = cacheDir == null ? null : new AnalysisCache(cacheDir, CACHE_MEMORY_BYTES);
+        PipelineRunner runner = new PipelineRunner(ioThreads, computeThreads, maxInFlight, outDir, exportDot, cache, relabel);
+        try {
+            List<DatasetResult> results = runner.run(files);
+            writeSummary(summary, results);
+            long failed = results.stream().filter(r -> r.error != null).count();
+            System.out.printf("Processed %d datasets (%d failed). Summary: %s%n", results.size(), failed, summary);
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    /**
+     * A directory yields its {@code .json} and {@code .gbin} files; anything else is treated as a
+     * glob whose wildcard-free prefix is the directory to search, e.g. {@code data/*_scc_*.json}.
+     */
+    public static List<Path> resolveInputs(String input) throws IOException {
+        Path path = Paths.get(input);
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> entries = Files.list(path)) {
+                return entries.filter(Files::isRegularFile)
+                        .filter(p -> {
+                            String name = p.getFileName().toString();
+                            return name.endsWith(".json") || name.endsWith(BinaryGraphFile.EXTENSION);
+                        })
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+        if (Files.isRegularFile(path)) {
+            return List.of(path);
+        }
+
+        int wildcard = firstWildcard(input);
+        int slash = input.lastIndexOf('/', wildcard);
+        Path base = slash < 0 ? Paths.get(".") : Paths.get(input.substring(0, slash + 1));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + input);
+        if (!Files.isDirectory(base)) {
+            return List.of();
+        }
+        try (Stream<Path> entries = Files.walk(base)) {
+            return entries.filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(slash < 0 ? base.relativize(p) : p))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int firstWildcard(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return glob.length();
+    }
+
+    public List<DatasetResult> run(List<Path> files) throws InterruptedException {
+        List<CompletableFuture<DatasetResult>> futures = new ArrayList<>(files.size());
+        AtomicInteger done = new AtomicInteger();
+        for (Path file : files) {
+            inFlight.acquire();
+            DatasetResult result = new DatasetResult(file.toString());
+            CompletableFuture<DatasetResult> future = CompletableFuture
+                    .supplyAsync(() -> load(file, result), ioPool)
+                    .thenApplyAsync(this::compute, computePool)
+                    .thenApplyAsync(this::export, ioPool)
+                    .handle((loaded, failure) -> {
+                        if (failure != null) {
+                            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                                    ? failure.getCause() : failure;
+                            result.error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+                            System.err.println("FAILED " + file + ": " + result.error);
+                        } else {
+                            System.out.printf("[%d/%d] %s: V=%d, SCCs=%d%n", done.incrementAndGet(), files.size(),
+                                    file, result.vertices, result.sccCount);
+                        }
+                        inFlight.release();
+                        return result;
+                    });
+            futures.add(future);
+        }
+        List<DatasetResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<DatasetResult> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    public void shutdown() {
+        ioPool.shutdown();
+        computePool.shutdown();
+    }
+
+    private Loaded load(Path file, DatasetResult result) {
+        try {
+            long start = System.nanoTime();
+            DataLoader.GraphFile graphFile = DataLoader.readGraph(file.toString());
+            result.loadNanos = System.nanoTime() - start;
+            result.vertices = graphFile.graph.getV();
+            result.edges = graphFile.graph.getE();
+            return new Loaded(result, graphFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Loaded compute(Loaded loaded) {
+        DatasetResult result = loaded.result;
+        CsrGraph graph = loaded.file.graph;
+        Metrics metrics = new Metrics();
+
+        VertexRelabeling relabeling = null;
+        CsrGraph work = graph;
+        if (relabel == VertexRelabeling.Strategy.BFS) {
+            relabeling = VertexRelabeling.bfs(graph);
+        } else if (relabel == VertexRelabeling.Strategy.DEGREE) {
+            relabeling = VertexRelabeling.byDegree(graph);
+        }
+        if (relabeling != null) {
+            work = relabeling.apply(graph);
+        }
+
+        GraphAnalysis analysis;
+        try {
+            analysis = cache != null ? cache.getOrCompute(work, metrics) : GraphAnalysis.compute(null, work, metrics);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (relabeling != null) {
+            analysis = analysis.restore(relabeling);
+        }
+        CsrGraph condensation = analysis.getCondensation();
+        List<List<Integer>> sccs = analysis.components();
+        result.sccCount = sccs.size();
+        result.largestScc = sccs.stream().mapToInt(List::size).max().orElse(0);
+        result.condensationVertices = condensation.getV();
+        result.condensationEdges = condensation.getE();
+        loaded.sccs = sccs;
+        loaded.condensation = condensation;
+
+        List<Integer> topoOrder = analysis.getTopoOrderList();
+        if (graph.getV() > 0 && !topoOrder.isEmpty()) {
+            int[] sccId = analysis.getSccId();
+            result.source = loaded.file.source;
+            result.target = graph.getV() - 1;
+            int sccSource = sccId[result.source];
+            int sccTarget = sccId[result.target];
+
+            DAGShortestPath shortest = new DAGShortestPath(condensation, metrics, topoOrder);
+            shortest.findShortestPath(sccSource, sccTarget);
+            if (!shortest.reconstructPath(sccTarget).isEmpty()) {
+                result.shortestDistance = Integer.toString(shortest.getDistance(sccTarget));
+            }
+            DAGShortestPath longest = new DAGShortestPath(condensation, metrics, topoOrder);
+            longest.findLongestPath(sccSource, sccTarget);
+            if (!longest.reconstructPath(sccTarget).isEmpty()) {
+                result.longestDistance = Integer.toString(longest.getDistance(sccTarget));
+            }
+        }
+
+        result.sccNanos = metrics.getHistogram(Metrics.Phase.SCC).getTotalNanos();
+        result.condensationNanos = metrics.getHistogram(Metrics.Phase.CONDENSATION).getTotalNanos();
+        result.topoNanos = metrics.getHistogram(Metrics.Phase.TOPO_SORT).getTotalNanos();
+        result.pathNanos = metrics.getHistogram(Metrics.Phase.PATHS).getTotalNanos();
+        result.edgesProcessed = metrics.getEdgesProcessed();
+        result.relaxations = metrics.getRelaxations();
+        return loaded;
+    }
+
+    private Loaded export(Loaded loaded) {
+        if (!exportDot) {
+            return loaded;
+        }
+        try {
+            Files.createDirectories(outDir);
+            String baseName = baseName(Paths.get(loaded.result.file));
+            GraphUtils.exportToDot(loaded.file.graph, outDir.resolve(baseName + "_original.dot").toString());
+            GraphUtils.exportCondensationToDot(loaded.condensation,
+                    outDir.resolve("condensed_" + baseName + ".dot").toString(), loaded.sccs);
+            return loaded;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    public static void writeSummary(Path summary, List<DatasetResult> results) throws IOException {
+        Path parent = summary.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (summary.getFileName().toString().endsWith(".json")) {
+            writeJsonSummary(summary, results);
+        } else {
+            writeCsvSummary(summary, results);
+        }
+    }
+
+    private static final String[] COLUMNS = {
+            "file", "vertices", "edges", "source", "target", "scc_count", "largest_scc",
+            "condensation_vertices", "condensation_edges", "shortest_distance", "longest_distance",
+            "load_ns", "scc_ns", "condensation_ns", "topo_ns", "path_ns", "edges_processed", "relaxations", "error"
+    };
+
+    private static Object[] row(DatasetResult r) {
+        return new Object[]{
+                r.file, r.vertices, r.edges, r.source, r.target, r.sccCount, r.largestScc,
+                r.condensationVertices, r.condensationEdges, r.shortestDistance, r.longestDistance,
+                r.loadNanos, r.sccNanos, r.condensationNanos, r.topoNanos, r.pathNanos, r.edgesProcessed,
+                r.relaxations, r.error == null ? "" : r.error
+        };
+    }
+
+    private static void writeCsvSummary(Path summary, List<DatasetResult> results) throws IOException {
+        try (Writer out = Files.newBufferedWriter(summary, StandardCharsets.UTF_8)) {
+            out.write(String.join(",", COLUMNS));
+            out.write('\n');
+            for (DatasetResult r : results) {
+                Object[] values = row(r);
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        out.write(',');
+                    }
+                    out.write(csv(String.valueOf(values[i])));
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void writeJsonSummary(Path summary, List<DatasetResult> results) throws IOException {
+        try (JsonGenerator json = new JsonFactory().createGenerator(summary.toFile(), JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartArray();
+            for (DatasetResult r : results) {
+                Object[] values = row(r);
+                json.writeStartObject();
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    Object value = values[i];
+                    if (value instanceof Integer) {
+                        json.writeNumberField(COLUMNS[i], (Integer) value);
+                    } else if (value instanceof Long) {
+                        json.writeNumberField(COLUMNS[i], (Long) value);
+                    } else if (value.toString().isEmpty()) {
+                        json.writeNullField(COLUMNS[i]);
+                    } else {
+                        json.writeStringField(COLUMNS[i], value.toString());
+                    }
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,418 @@
+package graph.cache;
+
+import graph.common.CsrGraph;
+import graph.common.DataLoader;
+import graph.common.Metrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-level cache of {@link GraphAnalysis} results keyed by a SHA-256 hash of the graph's CSR
+ * arrays, so an unchanged graph maps to the same entry no matter which file or format it came from.
+ * <ul>
+ *   <li>memory: LRU bounded by the estimated size of the entries in bytes;</li>
+ *   <li>disk (optional): one binary file per key in the cache directory, written atomically.</li>
+ * </ul>
+ * {@link #load(String, Metrics)} also records which key a graph file last produced, so
+ * {@link #invalidateFile(String)} can drop the entry of a file that is about to change.
+ */
+public class AnalysisCache {
+    public static final String EXTENSION = ".analysis";
+
+    // Bump when the file layout or the algorithms producing the cached ids change.
+    static final int VERSION = 1;
+    private static final int MAGIC = 0x414E4147; // "GANA" read as little-endian
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final String INDEX_FILE = "index.properties";
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final LinkedHashMap<String, GraphAnalysis> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    // File -> key index of a memory-only cache; a disk cache keeps it in INDEX_FILE instead.
+    private final Map<String, String> fileKeys = new HashMap<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Graph read through {@link DataLoader} together with its (possibly cached) analysis.
+     */
+    public static class CachedGraph {
+        public final DataLoader.GraphFile file;
+        public final GraphAnalysis analysis;
+
+        CachedGraph(DataLoader.GraphFile file, GraphAnalysis analysis) {
+            this.file = file;
+            this.analysis = analysis;
+        }
+    }
+
+    /**
+     * @param directory where entries are persisted, or {@code null} for a memory-only cache
+     */
+    public AnalysisCache(Path directory, long maxMemoryBytes) throws IOException {
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    public static String contentHash(CsrGraph graph) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(VERSION).putInt(graph.getV()).putInt(graph.getE());
+        hashInts(digest, buffer, graph.offsets());
+        hashInts(digest, buffer, graph.targets());
+        hashInts(digest, buffer, graph.weights());
+        buffer.flip();
+        digest.update(buffer);
+
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder(32);
+        for (int i = 0; i < 16; i++) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    // Reads through the buffer view so a mapped graph is hashed without a heap copy.
+    private static void hashInts(MessageDigest digest, ByteBuffer buffer, IntBuffer values) {
+        while (values.hasRemaining()) {
+            if (buffer.remaining() < Integer.BYTES) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            int count = Math.min(values.remaining(), buffer.remaining() / Integer.BYTES);
+            IntBuffer chunk = values.slice();
+            chunk.limit(count);
+            buffer.asIntBuffer().put(chunk);
+            values.position(values.position() + count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Loads a graph file with {@link DataLoader#readGraph(String)} and returns it with its analysis.
+     */
+    public CachedGraph load(String filePath, Metrics metrics) throws IOException {
+        DataLoader.GraphFile file = DataLoader.readGraph(filePath);
+        GraphAnalysis analysis = getOrCompute(file.graph, metrics);
+        if (directory != null) {
+            updateIndex(filePath, analysis.getKey());
+        } else {
+            synchronized (this) {
+                fileKeys.put(indexKey(filePath), analysis.getKey());
+            }
+        }
+        return new CachedGraph(file, analysis);
+    }
+
+    public GraphAnalysis getOrCompute(CsrGraph graph, Metrics metrics) throws IOException {
+        String key = contentHash(graph);
+        GraphAnalysis cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+        cached = fromDisk(key, graph.getV());
+        if (cached != null) {
+            diskHits.increment();
+            toMemory(cached);
+            return cached;
+        }
+
+        misses.increment();
+        GraphAnalysis computed = GraphAnalysis.compute(key, graph, metrics);
+        toDisk(computed);
+        toMemory(computed);
+        return computed;
+    }
+
+    public void invalidate(String key) throws IOException {
+        synchronized (this) {
+            GraphAnalysis removed = memory.remove(key);
+            if (removed != null) {
+                memoryBytes -= removed.estimatedBytes();
+            }
+        }
+        if (directory != null) {
+            Files.deleteIfExists(entryPath(key));
+        }
+    }
+
+    public void invalidate(CsrGraph graph) throws IOException {
+        invalidate(contentHash(graph));
+    }
+
+    /**
+     * Drops the entry last produced by {@link #load} for this file, without reading the file.
+     * @return whether the file had an entry
+     */
+    public boolean invalidateFile(String filePath) throws IOException {
+        String key;
+        synchronized (this) {
+            if (directory == null) {
+                key = fileKeys.remove(indexKey(filePath));
+                if (key != null) {
+                    invalidate(key);
+                }
+                return key != null;
+            }
+            Properties index = readIndex();
+            key = (String) index.remove(indexKey(filePath));
+            if (key != null) {
+                writeIndex(index);
+            }
+        }
+        if (key != null) {
+            invalidate(key);
+        }
+        return key != null;
+    }
+
+    public void clear() throws IOException {
+        synchronized (this) {
+            memory.clear();
+            memoryBytes = 0;
+            fileKeys.clear();
+        }
+        if (directory != null) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                for (Path entry : entries) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+            Files.deleteIfExists(directory.resolve(INDEX_FILE));
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.sum();
+    }
+
+    public long getDiskHits() {
+        return diskHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized int getMemoryEntries() {
+        return memory.size();
+    }
+
+    private synchronized GraphAnalysis fromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void toMemory(GraphAnalysis analysis) {
+        long size = analysis.estimatedBytes();
+        if (size > maxMemoryBytes) {
+            return;
+        }
+        GraphAnalysis previous = memory.put(analysis.getKey(), analysis);
+        if (previous != null) {
+            memoryBytes -= previous.estimatedBytes();
+        }
+        memoryBytes += size;
+        Iterator<Map.Entry<String, GraphAnalysis>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            GraphAnalysis evicted = eldest.next().getValue();
+            eldest.remove();
+            memoryBytes -= evicted.estimatedBytes();
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + EXTENSION);
+    }
+
+    /**
+     * Layout (little-endian ints): magic, version, V, numScc, condensation E, sccId[V],
+     * offsets[numScc + 1], targets[E], weights[E], topoOrder[numScc].
+     */
+    private void toDisk(GraphAnalysis analysis) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        CsrGraph condensation = analysis.getCondensation();
+        Path temp = Files.createTempFile(directory, analysis.getKey(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(analysis.getSccId().length)
+                    .putInt(condensation.getV()).putInt(condensation.getE());
+            writeInts(channel, buffer, analysis.getSccId());
+            writeInts(channel, buffer, condensation.getOffsets());
+            writeInts(channel, buffer, condensation.getTargets());
+            writeInts(channel, buffer, condensation.getWeights());
+            writeInts(channel, buffer, analysis.getTopoOrder());
+            flush(channel, buffer);
+        }
+        Files.move(temp, entryPath(analysis.getKey()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private GraphAnalysis fromDisk(String key, int V) throws IOException {
+        if (directory == null) {
+            return null;
+        }
+        Path path = entryPath(key);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != V) {
+                System.err.println("Discarding stale cache entry " + path);
+                Files.deleteIfExists(path);
+                return null;
+            }
+            int numScc = buffer.getInt();
+            int E = buffer.getInt();
+            // Check the counts against the file size before allocating anything from them.
+            long expected = HEADER_BYTES + ((long) V + 2L * numScc + 1 + 2L * E) * Integer.BYTES;
+            if (numScc < 0 || numScc > V || E < 0 || channel.size() != expected) {
+                throw new IOException("header (numScc=" + numScc + ", E=" + E + ") does not match "
+                        + channel.size() + " bytes");
+            }
+            buffer.clear();
+            int[] sccId = readInts(channel, buffer, V);
+            int[] offsets = readInts(channel, buffer, numScc + 1);
+            int[] targets = readInts(channel, buffer, E);
+            int[] weights = readInts(channel, buffer, E);
+            int[] topoOrder = readInts(channel, buffer, numScc);
+            checkRange(sccId, numScc, "SCC id");
+            checkRange(targets, numScc, "condensation target");
+            checkRange(topoOrder, numScc, "topological order entry");
+            for (int c = 0; c < numScc; c++) {
+                if (offsets[c] > offsets[c + 1]) {
+                    throw new IOException("Condensation offsets decrease at " + c);
+                }
+            }
+            if (offsets[0] != 0) {
+                throw new IOException("Condensation offsets start at " + offsets[0]);
+            }
+            CsrGraph condensation = CsrGraph.wrap(numScc, offsets, targets, weights);
+            return new GraphAnalysis(key, sccId, condensation, topoOrder);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Discarding unreadable cache entry " + path + ": " + e.getMessage());
+            Files.deleteIfExists(path);
+            return null;
+        }
+    }
+
+    private static void checkRange(int[] values, int bound, String what) throws IOException {
+        for (int value : values) {
+            if (value < 0 || value >= bound) {
+                throw new IOException(what + " " + value + " is outside [0, " + bound + ")");
+            }
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush(channel, buffer);
+            }
+            int count = Math.min(values.length - i, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, i, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            i += count;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static int[] readInts(FileChannel channel, ByteBuffer buffer, int count) throws IOException {
+        int[] values = new int[count];
+        int i = 0;
+        while (i < count) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (long) (count - i) * Integer.BYTES));
+            readFully(channel, buffer);
+            buffer.flip();
+            int n = buffer.remaining() / Integer.BYTES;
+            buffer.asIntBuffer().get(values, i, n);
+            i += n;
+        }
+        return values;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated cache entry");
+            }
+        }
+    }
+
+    private static String indexKey(String filePath) {
+        return Paths.get(filePath).toAbsolutePath().normalize().toString();
+    }
+
+    private synchronized void updateIndex(String filePath, String key) throws IOException {
+        Properties index = readIndex();
+        String previous = (String) index.setProperty(indexKey(filePath), key);
+        if (!key.equals(previous)) {
+            writeIndex(index);
+        }
+    }
+
+    private Properties readIndex() throws IOException {
+        Properties index = new Properties();
+        Path path = directory.resolve(INDEX_FILE);
+        if (Files.exists(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                index.load(in);
+            }
+        }
+        return index;
+    }
+
+    private void writeIndex(Properties index) throws IOException {
+        Path temp = Files.createTempFile(directory, "index", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            index.store(out, "graph file -> analysis cache key");
+        }
+        Files.move(temp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,114 @@
+package graph.cache;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.common.VertexRelabeling;
+import graph.scc.SccPartition;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The path-independent part of the pipeline for one graph: SCC assignment, condensation DAG and
+ * a topological order of the condensation. Everything a path query needs, nothing it computes.
+ */
+public class GraphAnalysis {
+    private final String key;
+    private final int[] sccId;
+    private final CsrGraph condensation;
+    private final int[] topoOrder;
+
+    public GraphAnalysis(String key, int[] sccId, CsrGraph condensation, int[] topoOrder) {
+        this.key = key;
+        this.sccId = sccId;
+        this.condensation = condensation;
+        this.topoOrder = topoOrder;
+    }
+
+    /**
+     * Runs Tarjan, builds the condensation and sorts it topologically.
+     * @param key cache key to attach, or {@code null} outside a cache
+     */
+    public static GraphAnalysis compute(String key, CsrGraph graph, Metrics metrics) {
+        TarjanSCC tarjan = new TarjanSCC(graph, metrics);
+        tarjan.findPartition();
+        CsrGraph condensation = tarjan.buildCondensation();
+        int[] topoOrder = new TopologicalSort(condensation, metrics).sortToArray();
+        return new GraphAnalysis(key, tarjan.getSccId(), condensation, topoOrder);
+    }
+
+    /**
+     * This analysis as seen from {@code relabeling.apply(graph)}. Component ids, condensation and
+     * topological order do not depend on vertex names, so only {@code sccId} is permuted.
+     */
+    public GraphAnalysis relabel(VertexRelabeling relabeling) {
+        return new GraphAnalysis(key, relabeling.mapToNew(sccId), condensation, topoOrder);
+    }
+
+    /**
+     * Inverse of {@link #relabel}: an analysis of the relabeled graph in original vertex ids.
+     */
+    public GraphAnalysis restore(VertexRelabeling relabeling) {
+        return new GraphAnalysis(key, relabeling.mapToOld(sccId), condensation, topoOrder);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int[] getSccId() {
+        return sccId;
+    }
+
+    public int getSccCount() {
+        return condensation.getV();
+    }
+
+    public CsrGraph getCondensation() {
+        return condensation;
+    }
+
+    public int[] getTopoOrder() {
+        return topoOrder;
+    }
+
+    public List<Integer> getTopoOrderList() {
+        List<Integer> order = new ArrayList<>(topoOrder.length);
+        for (int c : topoOrder) {
+            order.add(c);
+        }
+        return order;
+    }
+
+    /**
+     * Members of every component, indexed by component id, each in increasing vertex order.
+     */
+    public List<List<Integer>> components() {
+        List<List<Integer>> result = new ArrayList<>(getSccCount());
+        for (int c = 0; c < getSccCount(); c++) {
+            result.add(new ArrayList<>());
+        }
+        for (int v = 0; v < sccId.length; v++) {
+            result.get(sccId[v]).add(v);
+        }
+        return result;
+    }
+
+    /**
+     * Same grouping as {@link #components()} as two flat int arrays.
+     */
+    public SccPartition partition() {
+        return SccPartition.fromSccId(sccId, getSccCount());
+    }
+
+    /**
+     * Approximate heap footprint in bytes, used for size-based eviction.
+     */
+    public long estimatedBytes() {
+        long ints = (long) sccId.length + topoOrder.length
+                + condensation.getV() + 1L + 2L * condensation.getE();
+        return 4 * ints + 128;
+    }
+}
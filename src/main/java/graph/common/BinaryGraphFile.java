@@ -0,0 +1,190 @@
+package graph.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned little-endian binary layout of a {@link CsrGraph}:
+ * <pre>
+ * int magic ("CSRG"), int version, int V, int E, int source, int flags,
+ * int weightModelLength, UTF-8 weight model padded to 4 bytes,
+ * int[V + 1] offsets, int[E] targets, int[E] weights,
+ * int[V] node weights (only if the node-weights flag is set)
+ * </pre>
+ * Version 1 files have no node-weights section and are still readable.
+ */
+public class BinaryGraphFile {
+    public static final String EXTENSION = ".gbin";
+    public static final int MAGIC = 0x47525343; // "CSRG" read as little-endian
+    public static final int VERSION = 2;
+
+    private static final int FLAG_DIRECTED = 1;
+    private static final int FLAG_NODE_WEIGHTS = 2;
+    private static final int FIXED_HEADER_BYTES = 7 * Integer.BYTES;
+    private static final int WRITE_CHUNK_BYTES = 1 << 20;
+
+    public static void write(Path path, DataLoader.GraphFile file) throws IOException {
+        write(path, file.graph, file.directed, file.source, file.weightModel, file.nodeWeights);
+    }
+
+    public static void write(Path path, CsrGraph graph, boolean directed, int source, String weightModel)
+            throws IOException {
+        write(path, graph, directed, source, weightModel, null);
+    }
+
+    /**
+     * @param nodeWeights per-vertex durations of the node weight model, or {@code null}
+     */
+    public static void write(Path path, CsrGraph graph, boolean directed, int source, String weightModel,
+                             int[] nodeWeights) throws IOException {
+        if (nodeWeights != null && nodeWeights.length != graph.getV()) {
+            throw new IllegalArgumentException("Node weights have " + nodeWeights.length
+                    + " entries, expected V=" + graph.getV());
+        }
+        int flags = (directed ? FLAG_DIRECTED : 0) | (nodeWeights != null ? FLAG_NODE_WEIGHTS : 0);
+        byte[] model = weightModel == null ? new byte[0] : weightModel.getBytes(StandardCharsets.UTF_8);
+        int padded = (model.length + 3) & ~3;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(graph.getV())
+                    .putInt(graph.getE())
+                    .putInt(source)
+                    .putInt(flags)
+                    .putInt(model.length)
+                    .put(model);
+            for (int i = model.length; i < padded; i++) {
+                buffer.put((byte) 0);
+            }
+            writeInts(channel, buffer, graph.offsets());
+            writeInts(channel, buffer, graph.targets());
+            writeInts(channel, buffer, graph.weights());
+            if (nodeWeights != null) {
+                writeInts(channel, buffer, IntBuffer.wrap(nodeWeights));
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, IntBuffer values) throws IOException {
+        while (values.hasRemaining()) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush(channel, buffer);
+            }
+            int count = Math.min(values.remaining(), buffer.remaining() / Integer.BYTES);
+            IntBuffer chunk = values.slice();
+            chunk.limit(count);
+            buffer.asIntBuffer().put(chunk);
+            values.position(values.position() + count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Maps a binary graph file read-only. Only the header is read eagerly; the CSR sections
+     * are paged in by the OS as they are touched.
+     */
+    public static MappedGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FIXED_HEADER_BYTES) {
+                throw new IOException("Not a binary graph file (too short): " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, FIXED_HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a binary graph file (bad magic): " + path);
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + path);
+            }
+            int V = header.getInt();
+            int E = header.getInt();
+            int source = header.getInt();
+            int flags = header.getInt();
+            int modelLength = header.getInt();
+            if (V < 0 || E < 0 || modelLength < 0) {
+                throw new IOException("Corrupt binary graph header in " + path);
+            }
+
+            long position = FIXED_HEADER_BYTES;
+            String weightModel = null;
+            if (modelLength > 0) {
+                ByteBuffer model = channel.map(FileChannel.MapMode.READ_ONLY, position, modelLength);
+                byte[] bytes = new byte[modelLength];
+                model.get(bytes);
+                weightModel = new String(bytes, StandardCharsets.UTF_8);
+            }
+            position += (modelLength + 3) & ~3;
+
+            boolean hasNodeWeights = (flags & FLAG_NODE_WEIGHTS) != 0;
+            long expected = position + ((long) V + 1 + 2L * E + (hasNodeWeights ? V : 0)) * Integer.BYTES;
+            if (size != expected) {
+                throw new IOException("Binary graph " + path + " has " + size + " bytes, expected " + expected);
+            }
+
+            IntBuffer offsets = mapInts(channel, position, V + 1L);
+            position += (V + 1L) * Integer.BYTES;
+            IntBuffer targets = mapInts(channel, position, E);
+            position += (long) E * Integer.BYTES;
+            IntBuffer weights = mapInts(channel, position, E);
+            position += (long) E * Integer.BYTES;
+            IntBuffer nodeWeights = hasNodeWeights ? mapInts(channel, position, V) : null;
+
+            return new MappedGraph(V, E, (flags & FLAG_DIRECTED) != 0, source, weightModel,
+                    offsets, targets, weights, nodeWeights);
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, long count) throws IOException {
+        long bytes = count * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Section of " + count + " ints is too large to map");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+        return buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Converts JSON graphs to the binary format next to them. Arguments are JSON files or
+     * directories (all *.json inside); with no arguments the {@code data/} folder is converted.
+     */
+    public static void main(String[] args) throws IOException {
+        String[] inputs = args.length == 0 ? new String[]{"data/"} : args;
+        for (String input : inputs) {
+            File file = new File(input);
+            File[] jsonFiles = file.isDirectory()
+                    ? file.listFiles((dir, name) -> name.endsWith(".json"))
+                    : new File[]{file};
+            if (jsonFiles == null) {
+                continue;
+            }
+            for (File json : jsonFiles) {
+                Path target = Paths.get(json.getPath().replaceAll("\\.json$", "") + EXTENSION);
+                write(target, DataLoader.readGraph(json.getPath()));
+                System.out.println("Converted " + json.getPath() + " -> " + target);
+            }
+        }
+    }
+}
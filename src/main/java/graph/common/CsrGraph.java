@@ -0,0 +1,330 @@
+package graph.common;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable compressed sparse row (CSR) graph. The out-edges of vertex {@code u} are
+ * {@code targets[offsets[u] .. offsets[u + 1])} with matching {@code weights}.
+ * The reverse CSR is built lazily on first use.
+ * <p>
+ * A graph can also wrap {@link IntBuffer}s, typically sections of a memory-mapped
+ * {@link BinaryGraphFile}. The per-vertex and per-edge accessors and the buffer views then read
+ * the mapping directly, so pages are faulted in as they are touched. {@link #getOffsets()},
+ * {@link #getTargets()} and {@link #getWeights()} copy their section to the heap on first call.
+ */
+public final class CsrGraph {
+    private final int V;
+    private final int E;
+    // Heap arrays; null for a buffer-backed graph.
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final IntBuffer offsetBuffer;
+    private final IntBuffer targetBuffer;
+    private final IntBuffer weightBuffer;
+
+    private volatile int[] offsetCopy;
+    private volatile int[] targetCopy;
+    private volatile int[] weightCopy;
+    private volatile CsrGraph reverse;
+
+    CsrGraph(int V, int[] offsets, int[] targets, int[] weights) {
+        this.V = V;
+        this.E = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.offsetBuffer = null;
+        this.targetBuffer = null;
+        this.weightBuffer = null;
+    }
+
+    private CsrGraph(int V, IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        this.V = V;
+        this.E = targets.limit();
+        this.offsets = null;
+        this.targets = null;
+        this.weights = null;
+        this.offsetBuffer = offsets;
+        this.targetBuffer = targets;
+        this.weightBuffer = weights;
+    }
+
+    /**
+     * Wraps already laid out CSR arrays without copying. The arrays must not be modified afterwards.
+     */
+    public static CsrGraph wrap(int V, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != V + 1 || targets.length != weights.length || offsets[V] != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays for V=" + V);
+        }
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+    /**
+     * Wraps CSR sections held in buffers (for example memory-mapped) without reading them. Only
+     * the last offset is checked. The buffers must not be modified afterwards.
+     */
+    public static CsrGraph wrap(int V, IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        if (offsets.limit() != V + 1 || targets.limit() != weights.limit() || offsets.get(V) != targets.limit()) {
+            throw new IllegalArgumentException("Inconsistent CSR buffers for V=" + V);
+        }
+        return new CsrGraph(V, offsets.duplicate(), targets.duplicate(), weights.duplicate());
+    }
+
+    public static CsrGraph fromGraph(Graph graph) {
+        int V = graph.getV();
+        int[] offsets = new int[V + 1];
+        for (int u = 0; u < V; u++) {
+            offsets[u + 1] = offsets[u] + graph.getAdj(u).size();
+        }
+        int[] targets = new int[offsets[V]];
+        int[] weights = new int[offsets[V]];
+        int i = 0;
+        for (int u = 0; u < V; u++) {
+            for (Edge edge : graph.getAdj(u)) {
+                targets[i] = edge.target;
+                weights[i] = edge.weight;
+                i++;
+            }
+        }
+        return new CsrGraph(V, offsets, targets, weights);
+    }
+
+    public Graph toGraph() {
+        Graph graph = new Graph(V);
+        for (int u = 0; u < V; u++) {
+            for (int i = edgeStart(u); i < edgeEnd(u); i++) {
+                graph.addEdge(u, target(i), weight(i));
+            }
+        }
+        return graph;
+    }
+
+    public int getV() {
+        return V;
+    }
+
+    public int getE() {
+        return E;
+    }
+
+    public int outDegree(int u) {
+        return edgeEnd(u) - edgeStart(u);
+    }
+
+    public int edgeStart(int u) {
+        return offsets != null ? offsets[u] : offsetBuffer.get(u);
+    }
+
+    public int edgeEnd(int u) {
+        return offsets != null ? offsets[u + 1] : offsetBuffer.get(u + 1);
+    }
+
+    public int target(int edgeIndex) {
+        return targets != null ? targets[edgeIndex] : targetBuffer.get(edgeIndex);
+    }
+
+    public int weight(int edgeIndex) {
+        return weights != null ? weights[edgeIndex] : weightBuffer.get(edgeIndex);
+    }
+
+    /**
+     * {@code true} if the graph reads buffers (usually a file mapping) rather than heap arrays.
+     */
+    public boolean isBufferBacked() {
+        return offsets == null;
+    }
+
+    // Raw arrays for hot loops; callers must treat them as read-only.
+    public int[] getOffsets() {
+        if (offsets != null) {
+            return offsets;
+        }
+        int[] copy = offsetCopy;
+        if (copy == null) {
+            synchronized (this) {
+                copy = offsetCopy;
+                if (copy == null) {
+                    offsetCopy = copy = copyOf(offsetBuffer);
+                }
+            }
+        }
+        return copy;
+    }
+
+    public int[] getTargets() {
+        if (targets != null) {
+            return targets;
+        }
+        int[] copy = targetCopy;
+        if (copy == null) {
+            synchronized (this) {
+                copy = targetCopy;
+                if (copy == null) {
+                    targetCopy = copy = copyOf(targetBuffer);
+                }
+            }
+        }
+        return copy;
+    }
+
+    public int[] getWeights() {
+        if (weights != null) {
+            return weights;
+        }
+        int[] copy = weightCopy;
+        if (copy == null) {
+            synchronized (this) {
+                copy = weightCopy;
+                if (copy == null) {
+                    weightCopy = copy = copyOf(weightBuffer);
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static int[] copyOf(IntBuffer buffer) {
+        int[] copy = new int[buffer.limit()];
+        buffer.duplicate().rewind().get(copy);
+        return copy;
+    }
+
+    // Read-only views that never copy; each call returns an independent position.
+    public IntBuffer offsets() {
+        return offsets != null ? IntBuffer.wrap(offsets).asReadOnlyBuffer() : offsetBuffer.asReadOnlyBuffer();
+    }
+
+    public IntBuffer targets() {
+        return targets != null ? IntBuffer.wrap(targets).asReadOnlyBuffer() : targetBuffer.asReadOnlyBuffer();
+    }
+
+    public IntBuffer weights() {
+        return weights != null ? IntBuffer.wrap(weights).asReadOnlyBuffer() : weightBuffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the transposed graph (edge {@code u -> v} becomes {@code v -> u}), building it on first call.
+     */
+    public CsrGraph reverse() {
+        CsrGraph r = reverse;
+        if (r == null) {
+            synchronized (this) {
+                r = reverse;
+                if (r == null) {
+                    r = transpose();
+                    r.reverse = this;
+                    reverse = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    private CsrGraph transpose() {
+        int[] rOffsets = new int[V + 1];
+        for (int i = 0; i < E; i++) {
+            rOffsets[target(i) + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            rOffsets[v + 1] += rOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(rOffsets, V);
+        int[] rTargets = new int[E];
+        int[] rWeights = new int[E];
+        for (int u = 0; u < V; u++) {
+            for (int i = edgeStart(u); i < edgeEnd(u); i++) {
+                int slot = cursor[target(i)]++;
+                rTargets[slot] = u;
+                rWeights[slot] = weight(i);
+            }
+        }
+        return new CsrGraph(V, rOffsets, rTargets, rWeights);
+    }
+
+    /**
+     * Collects edges into primitive buffers and lays them out as CSR. Edges of the same source
+     * keep their insertion order, so algorithms see the same adjacency order as on {@link Graph}.
+     */
+    public static class Builder {
+        private int V;
+        private int size;
+        private int[] sources;
+        private int[] targets;
+        private int[] weights;
+
+        public Builder() {
+            this(-1, 16);
+        }
+
+        public Builder(int V) {
+            this(V, 16);
+        }
+
+        public Builder(int V, int expectedEdges) {
+            this.V = V;
+            int capacity = Math.max(expectedEdges, 1);
+            this.sources = new int[capacity];
+            this.targets = new int[capacity];
+            this.weights = new int[capacity];
+        }
+
+        public Builder setV(int V) {
+            this.V = V;
+            return this;
+        }
+
+        public int getV() {
+            return V;
+        }
+
+        public int edgeCount() {
+            return size;
+        }
+
+        public Builder addEdge(int u, int v, int w) {
+            if (size == sources.length) {
+                int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) size * 2);
+                if (capacity == size) {
+                    throw new IllegalStateException("Too many edges for CSR layout");
+                }
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = u;
+            targets[size] = v;
+            weights[size] = w;
+            size++;
+            return this;
+        }
+
+        public CsrGraph build() {
+            if (V < 0) {
+                throw new IllegalStateException("Vertex count was not set");
+            }
+            int[] offsets = new int[V + 1];
+            for (int i = 0; i < size; i++) {
+                int u = sources[i];
+                int v = targets[i];
+                if (u < 0 || u >= V || v < 0 || v >= V) {
+                    throw new IllegalArgumentException("Edge " + u + "->" + v + " is out of range for V=" + V);
+                }
+                offsets[u + 1]++;
+            }
+            for (int u = 0; u < V; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] cursor = Arrays.copyOf(offsets, V);
+            int[] csrTargets = new int[size];
+            int[] csrWeights = new int[size];
+            for (int i = 0; i < size; i++) {
+                int slot = cursor[sources[i]]++;
+                csrTargets[slot] = targets[i];
+                csrWeights[slot] = weights[i];
+            }
+            return new CsrGraph(V, offsets, csrTargets, csrWeights);
+        }
+    }
+}
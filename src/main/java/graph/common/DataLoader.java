@@ -1,34 +1,172 @@
 package graph.common;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class DataLoader {
-    public static class GraphData {
-        public boolean directed;
-        public int n;
-        public List<Map<String, Integer>> edges;
-        public int source;
-        public String weight_model;
+    /**
+     * Graph read from disk together with the metadata stored next to it.
+     */
+    public static class GraphFile {
+        public final CsrGraph graph;
+        public final boolean directed;
+        public final int source;
+        public final String weightModel;
+        /** Per-vertex durations for {@code "weight_model": "node"}, or {@code null} if the file has none. */
+        public final int[] nodeWeights;
+
+        public GraphFile(CsrGraph graph, boolean directed, int source, String weightModel) {
+            this(graph, directed, source, weightModel, null);
+        }
+
+        public GraphFile(CsrGraph graph, boolean directed, int source, String weightModel, int[] nodeWeights) {
+            this.graph = graph;
+            this.directed = directed;
+            this.source = source;
+            this.weightModel = weightModel;
+            this.nodeWeights = nodeWeights;
+        }
     }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     public static Graph loadGraph(String filePath) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        GraphData data = mapper.readValue(new File(filePath), GraphData.class);
+        GraphFile file = readGraph(filePath);
+        Graph graph = file.graph.toGraph();
 
-        Graph graph = new Graph(data.n);
+        System.out.println("Loaded graph from " + filePath + ": V=" + graph.getV() + ", Model=" + file.weightModel);
+        return graph;
+    }
 
-        for (Map<String, Integer> edgeData : data.edges) {
-            int u = edgeData.get("u");
-            int v = edgeData.get("v");
-            int w = edgeData.getOrDefault("w", 1);
+    public static CsrGraph loadCsr(String filePath) throws IOException {
+        return readGraph(filePath).graph;
+    }
 
-            graph.addEdge(u, v, w);
+    /**
+     * Reads a graph JSON file in a single streaming pass. Edges go straight into a
+     * {@link CsrGraph.Builder}, so {@code n} may appear before or after {@code edges};
+     * a missing {@code w} defaults to 1. Files with the {@link BinaryGraphFile#EXTENSION}
+     * extension are memory-mapped instead of parsed, and the graph reads the mapping in place.
+     */
+    public static GraphFile readGraph(String filePath) throws IOException {
+        if (filePath.endsWith(BinaryGraphFile.EXTENSION)) {
+            return BinaryGraphFile.open(Paths.get(filePath)).toGraphFile();
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(new File(filePath))) {
+            return readGraph(parser);
         }
+    }
 
-        System.out.println("Loaded graph from " + filePath + ": V=" + graph.getV() + ", Model=" + data.weight_model);
-        return graph;
+    static GraphFile readGraph(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at " + parser.getCurrentLocation());
+        }
+
+        CsrGraph.Builder builder = new CsrGraph.Builder();
+        int n = 0;
+        boolean directed = false;
+        int source = 0;
+        String weightModel = null;
+        int[] nodeWeights = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "n":
+                    n = parser.getIntValue();
+                    break;
+                case "directed":
+                    directed = value == JsonToken.VALUE_TRUE;
+                    break;
+                case "source":
+                    source = parser.getIntValue();
+                    break;
+                case "weight_model":
+                    weightModel = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case "edges":
+                    readEdges(parser, builder);
+                    break;
+                case "node_weights":
+                    nodeWeights = readIntArray(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (nodeWeights != null && nodeWeights.length != n) {
+            throw new IOException("'node_weights' has " + nodeWeights.length + " entries, expected n=" + n);
+        }
+        return new GraphFile(builder.setV(n).build(), directed, source, weightModel, nodeWeights);
+    }
+
+    private static int[] readIntArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected an array at " + parser.getCurrentLocation());
+        }
+        int[] values = new int[16];
+        int size = 0;
+        while (parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.getIntValue();
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new IOException("Malformed integer array at " + parser.getCurrentLocation());
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private static void readEdges(JsonParser parser, CsrGraph.Builder builder) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IOException("Expected 'edges' array at " + parser.getCurrentLocation());
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int u = -1;
+            int v = -1;
+            int w = 1;
+            boolean hasU = false;
+            boolean hasV = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "u":
+                        u = parser.getIntValue();
+                        hasU = true;
+                        break;
+                    case "v":
+                        v = parser.getIntValue();
+                        hasV = true;
+                        break;
+                    case "w":
+                        w = parser.getIntValue();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            if (!hasU || !hasV) {
+                throw new IOException("Edge without 'u' or 'v' at " + parser.getCurrentLocation());
+            }
+            builder.addEdge(u, v, w);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new IOException("Malformed 'edges' array at " + parser.getCurrentLocation());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,127 +1,104 @@
 package graph.common;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 
 public class DatasetGenerator {
 
-    private static final Random RANDOM = new Random();
+    public static final long DEFAULT_SEED = 42L;
     private static final String DATA_PATH = "data/";
 
     public static void generateAll() throws IOException {
+        generateAll(DEFAULT_SEED);
+    }
+
+    public static void generateAll(long seed) throws IOException {
         new File(DATA_PATH).mkdirs();
+        Random random = new Random(seed);
 
         // 1. SMALL DAG (Sparse) - 10 вершин
-        generateAndSaveDAG(10, 12, "small_dag_1.json");
+        generateAndSaveDAG(random, 10, 12, "small_dag_1.json");
 
         // 2. SMALL Cycle (Sparse) - 10 вершин
-        generateAndSaveMixed(10, 15, 1, "small_cycle_1.json");
+        generateAndSaveMixed(random, 10, 15, 1, "small_cycle_1.json");
 
         // 3. SMALL Mixed (Dense) - 10 вершин
-        generateAndSaveMixed(10, 30, 2, "small_mixed_1.json");
+        generateAndSaveMixed(random, 10, 30, 2, "small_mixed_1.json");
 
         // 4. MEDIUM DAG (Sparse) - 25 вершин
-        generateAndSaveDAG(25, 30, "medium_dag_1.json");
+        generateAndSaveDAG(random, 25, 30, "medium_dag_1.json");
 
         // 5. MEDIUM SCC (Sparse) - 25 вершин, 2 больших SCC
-        generateAndSaveSCC(25, 40, 2, 10, "medium_scc_1.json");
+        generateAndSaveSCC(random, 25, 40, 2, 10, "medium_scc_1.json");
 
         // 6. MEDIUM Dense (Dense) - 25 вершин
-        generateAndSaveMixed(25, 150, 5, "medium_dense_1.json");
+        generateAndSaveMixed(random, 25, 150, 5, "medium_dense_1.json");
 
         // 7. LARGE DAG (Sparse) - 50 вершин
-        generateAndSaveDAG(50, 70, "large_dag_1.json");
+        generateAndSaveDAG(random, 50, 70, "large_dag_1.json");
 
         // 8. LARGE SCC (Sparse) - 50 вершин, 3 больших SCC
-        generateAndSaveSCC(50, 90, 3, 15, "large_scc_1.json");
+        generateAndSaveSCC(random, 50, 90, 3, 15, "large_scc_1.json");
 
         // 9. LARGE Dense (Dense) - 50 вершин
-        generateAndSaveMixed(50, 50 * 49 / 2 / 2, 5, "large_dense_1.json");
+        generateAndSaveMixed(random, 50, 50 * 49 / 2 / 2, 5, "large_dense_1.json");
 
         System.out.println("Generated 9 datasets in the '" + DATA_PATH + "' folder.");
     }
 
     private static void saveGraph(int V, List<Edge> edges, int source, String fileName) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        Map<String, Object> data = new HashMap<>();
-        data.put("directed", true);
-        data.put("n", V);
+        GraphUtils.exportToJson(toCsr(V, edges), source, "edge", DATA_PATH + fileName, true);
+    }
 
-        List<Map<String, Integer>> edgeList = new ArrayList<>();
-        for (Edge edge : edges) {
-            Map<String, Integer> edgeMap = new HashMap<>();
-            edgeMap.put("u", edge.source);
-            edgeMap.put("v", edge.target);
-            edgeMap.put("w", edge.weight);
-            edgeList.add(edgeMap);
-        }
-        data.put("edges", edgeList);
-        data.put("source", source);
-        data.put("weight_model", "edge");
+    private static void generateAndSaveDAG(Random random, int V, int E, String fileName) throws IOException {
+        saveGraph(V, generateDAG(V, E, random), 0, fileName);
+    }
 
-        mapper.writerWithDefaultPrettyPrinter().writeValue(new File(DATA_PATH + fileName), data);
+    private static void generateAndSaveMixed(Random random, int V, int E, int numCycles, String fileName) throws IOException {
+        saveGraph(V, generateMixed(V, E, numCycles, random), 0, fileName);
     }
 
-    private static void generateAndSaveDAG(int V, int E, String fileName) throws IOException {
+    private static void generateAndSaveSCC(Random random, int V, int E, int numScc, int sccSize, String fileName) throws IOException {
+        saveGraph(V, generateSCC(V, E, numScc, sccSize, random), 0, fileName);
+    }
+
+    public static List<Edge> generateDAG(int V, int E, Random random) {
         List<Edge> edges = new ArrayList<>();
         for (int i = 0; i < E; i++) {
-            int u = RANDOM.nextInt(V);
-            int v = u + RANDOM.nextInt(V - u);
+            int u = random.nextInt(V);
+            int v = u + random.nextInt(V - u);
             if (u == v) continue;
-            int w = 1 + RANDOM.nextInt(10);
+            int w = 1 + random.nextInt(10);
             edges.add(new Edge(u, v, w));
         }
-        List<Edge> uniqueEdges = new ArrayList<>();
-        Map<String, Edge> edgeMap = new HashMap<>();
-        for (Edge edge : edges) {
-            String key = edge.source + "->" + edge.target;
-            if (!edgeMap.containsKey(key)) {
-                edgeMap.put(key, edge);
-                uniqueEdges.add(edge);
-            }
-        }
-
-        saveGraph(V, uniqueEdges, 0, fileName);
+        return unique(edges);
     }
 
-    private static void generateAndSaveMixed(int V, int E, int numCycles, String fileName) throws IOException {
+    public static List<Edge> generateMixed(int V, int E, int numCycles, Random random) {
         List<Edge> edges = new ArrayList<>();
 
         for (int i = 0; i < E - numCycles; i++) {
-            int u = RANDOM.nextInt(V);
-            int v = RANDOM.nextInt(V);
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
             if (u == v) continue;
-            int w = 1 + RANDOM.nextInt(10);
+            int w = 1 + random.nextInt(10);
             edges.add(new Edge(u, v, w));
         }
 
         for (int i = 0; i < numCycles; i++) {
-            int start = RANDOM.nextInt(V);
-            int middle = (start + 1 + RANDOM.nextInt(V - 1)) % V;
+            int start = random.nextInt(V);
+            int middle = (start + 1 + random.nextInt(V - 1)) % V;
             edges.add(new Edge(start, middle, 1));
             edges.add(new Edge(middle, start, 1));
         }
 
-        List<Edge> uniqueEdges = new ArrayList<>();
-        Map<String, Edge> edgeMap = new HashMap<>();
-        for (Edge edge : edges) {
-            String key = edge.source + "->" + edge.target;
-            if (!edgeMap.containsKey(key)) {
-                edgeMap.put(key, edge);
-                uniqueEdges.add(edge);
-            }
-        }
-
-        saveGraph(V, uniqueEdges, 0, fileName);
+        return unique(edges);
     }
 
-    private static void generateAndSaveSCC(int V, int E, int numScc, int sccSize, String fileName) throws IOException {
+    public static List<Edge> generateSCC(int V, int E, int numScc, int sccSize, Random random) {
         List<Edge> edges = new ArrayList<>();
 
         int currentV = 0;
@@ -136,15 +113,15 @@ public class DatasetGenerator {
             }
 
             for (int k = 0; k < sccSize * 2; k++) {
-                int u = startNode + RANDOM.nextInt(sccSize);
-                int v = startNode + RANDOM.nextInt(sccSize);
+                int u = startNode + random.nextInt(sccSize);
+                int v = startNode + random.nextInt(sccSize);
                 if (u != v) {
-                    edges.add(new Edge(u, v, 1 + RANDOM.nextInt(5)));
+                    edges.add(new Edge(u, v, 1 + random.nextInt(5)));
                 }
             }
             if (s > 0) {
                 int prevEnd = currentV - 1;
-                edges.add(new Edge(prevEnd, startNode + RANDOM.nextInt(sccSize), 1));
+                edges.add(new Edge(prevEnd, startNode + random.nextInt(sccSize), 1));
             }
 
             currentV += sccSize;
@@ -158,23 +135,32 @@ public class DatasetGenerator {
         }
         int remainingEdges = E - edges.size();
         for (int i = 0; i < remainingEdges; i++) {
-            int u = RANDOM.nextInt(V);
-            int v = RANDOM.nextInt(V);
+            int u = random.nextInt(V);
+            int v = random.nextInt(V);
             if (u != v) {
-                edges.add(new Edge(u, v, 1 + RANDOM.nextInt(10)));
+                edges.add(new Edge(u, v, 1 + random.nextInt(10)));
             }
         }
-        List<Edge> uniqueEdges = new ArrayList<>();
-        Map<String, Edge> edgeMap = new HashMap<>();
+        return unique(edges);
+    }
+
+    private static List<Edge> unique(List<Edge> edges) {
+        List<Edge> uniqueEdges = new ArrayList<>(edges.size());
+        LongIntHashMap seen = new LongIntHashMap(edges.size());
         for (Edge edge : edges) {
-            String key = edge.source + "->" + edge.target;
-            if (!edgeMap.containsKey(key)) {
-                edgeMap.put(key, edge);
+            if (seen.putIfAbsent(LongIntHashMap.key(edge.source, edge.target), 1) == LongIntHashMap.MISSING) {
                 uniqueEdges.add(edge);
             }
         }
+        return uniqueEdges;
+    }
 
-        saveGraph(V, uniqueEdges, 0, fileName);
+    public static CsrGraph toCsr(int V, List<Edge> edges) {
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, edges.size());
+        for (Edge edge : edges) {
+            builder.addEdge(edge.source, edge.target, edge.weight);
+        }
+        return builder.build();
     }
 
     public static void main(String[] args) throws IOException {
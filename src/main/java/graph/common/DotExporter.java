@@ -0,0 +1,276 @@
+package graph.common;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams DOT text straight to a file through a fixed-size buffer, so memory use does not grow
+ * with the graph. Output is gzip-compressed when requested or when the file name ends in
+ * {@code .gz}. For graphs too large to render, the output can be cut down:
+ * <ul>
+ *   <li>{@link #maxVertices}: keep vertices {@code 0..n-1} and the edges between them;</li>
+ *   <li>{@link #edgeSampleRate}: keep a deterministic pseudo-random fraction of the edges;</li>
+ *   <li>{@link #topSccs}: in a condensation, keep only the K largest components;</li>
+ *   <li>{@link #maxLabelMembers}: list at most this many members in an SCC label.</li>
+ * </ul>
+ * Whatever is left out is reported in a trailing DOT comment.
+ */
+public class DotExporter {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private boolean gzip;
+    private int maxVertices = UNLIMITED;
+    private double edgeSampleRate = 1.0;
+    private long sampleSeed;
+    private int topSccs = UNLIMITED;
+    private int maxLabelMembers = UNLIMITED;
+
+    public DotExporter gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    public DotExporter maxVertices(int maxVertices) {
+        this.maxVertices = maxVertices;
+        return this;
+    }
+
+    public DotExporter edgeSampleRate(double rate, long seed) {
+        if (rate <= 0 || rate > 1) {
+            throw new IllegalArgumentException("Sample rate must be in (0, 1]: " + rate);
+        }
+        this.edgeSampleRate = rate;
+        this.sampleSeed = seed;
+        return this;
+    }
+
+    public DotExporter topSccs(int k) {
+        this.topSccs = k;
+        return this;
+    }
+
+    public DotExporter maxLabelMembers(int maxLabelMembers) {
+        this.maxLabelMembers = maxLabelMembers;
+        return this;
+    }
+
+    public void exportGraph(CsrGraph graph, Path file) throws IOException {
+        int V = graph.getV();
+        int shown = Math.min(V, maxVertices);
+        long edgesShown = 0;
+        try (DotWriter out = open(file)) {
+            out.write("digraph G {\n");
+            out.write("    rankdir=LR; // Left to Right layout\n");
+
+            for (int i = 0; i < shown; i++) {
+                out.write("    ").writeInt(i).write(" [label=\"").writeInt(i).write("\"];\n");
+            }
+            for (int u = 0; u < shown; u++) {
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = graph.target(i);
+                    if (v >= shown || !sampled(i)) {
+                        continue;
+                    }
+                    writeEdge(out, u, v, graph.weight(i));
+                    edgesShown++;
+                }
+            }
+            out.write("}\n");
+            if (shown < V || edgesShown < graph.getE()) {
+                out.write("// truncated: ").writeLong(shown).write(" of ").writeLong(V).write(" vertices, ")
+                        .writeLong(edgesShown).write(" of ").writeLong(graph.getE()).write(" edges\n");
+            }
+        }
+    }
+
+    public void exportCondensation(CsrGraph cGraph, List<List<Integer>> sccs, Path file) throws IOException {
+        int numScc = cGraph.getV();
+        int[] memberOffsets = new int[numScc + 1];
+        for (int c = 0; c < numScc; c++) {
+            memberOffsets[c + 1] = memberOffsets[c] + sccs.get(c).size();
+        }
+        int[] members = new int[memberOffsets[numScc]];
+        for (int c = 0; c < numScc; c++) {
+            int k = memberOffsets[c];
+            for (int v : sccs.get(c)) {
+                members[k++] = v;
+            }
+        }
+        exportCondensation(cGraph, memberOffsets, members, file);
+    }
+
+    /**
+     * Condensation export from a per-vertex component id, without boxing member lists.
+     * Members are listed in increasing vertex order.
+     */
+    public void exportCondensation(CsrGraph cGraph, int[] sccId, Path file) throws IOException {
+        int numScc = cGraph.getV();
+        int[] memberOffsets = new int[numScc + 1];
+        for (int id : sccId) {
+            memberOffsets[id + 1]++;
+        }
+        for (int c = 0; c < numScc; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] cursor = Arrays.copyOf(memberOffsets, numScc);
+        int[] members = new int[sccId.length];
+        for (int v = 0; v < sccId.length; v++) {
+            members[cursor[sccId[v]]++] = v;
+        }
+        exportCondensation(cGraph, memberOffsets, members, file);
+    }
+
+    private void exportCondensation(CsrGraph cGraph, int[] memberOffsets, int[] members, Path file) throws IOException {
+        int numScc = cGraph.getV();
+        boolean[] keep = selectComponents(memberOffsets, numScc);
+        int shown = 0;
+        long edgesShown = 0;
+        try (DotWriter out = open(file)) {
+            out.write("digraph CondensationGraph {\n");
+            out.write("    rankdir=LR;\n");
+
+            for (int c = 0; c < numScc; c++) {
+                if (keep != null && !keep[c]) {
+                    continue;
+                }
+                shown++;
+                out.write("    ").writeInt(c).write(" [shape=box, label=\"SCC ").writeInt(c).write("\\n{");
+                int from = memberOffsets[c];
+                int to = memberOffsets[c + 1];
+                int listed = (int) Math.min(to - from, (long) maxLabelMembers);
+                for (int k = 0; k < listed; k++) {
+                    if (k > 0) {
+                        out.write(",");
+                    }
+                    out.writeInt(members[from + k]);
+                }
+                if (listed < to - from) {
+                    out.write(",...+").writeInt(to - from - listed);
+                }
+                out.write("}\"];\n");
+            }
+            for (int u = 0; u < numScc; u++) {
+                if (keep != null && !keep[u]) {
+                    continue;
+                }
+                for (int i = cGraph.edgeStart(u); i < cGraph.edgeEnd(u); i++) {
+                    int v = cGraph.target(i);
+                    if ((keep != null && !keep[v]) || !sampled(i)) {
+                        continue;
+                    }
+                    writeEdge(out, u, v, cGraph.weight(i));
+                    edgesShown++;
+                }
+            }
+            out.write("}\n");
+            if (shown < numScc || edgesShown < cGraph.getE()) {
+                out.write("// truncated: ").writeLong(shown).write(" of ").writeLong(numScc).write(" SCCs, ")
+                        .writeLong(edgesShown).write(" of ").writeLong(cGraph.getE()).write(" edges\n");
+            }
+        }
+    }
+
+    /**
+     * Marks the {@link #topSccs} largest components (ties broken by smaller id) among the first
+     * {@link #maxVertices}; returns {@code null} when every component is kept.
+     */
+    private boolean[] selectComponents(int[] memberOffsets, int numScc) {
+        int candidates = Math.min(numScc, maxVertices);
+        if (topSccs >= candidates && candidates == numScc) {
+            return null;
+        }
+        boolean[] keep = new boolean[numScc];
+        if (topSccs >= candidates) {
+            Arrays.fill(keep, 0, candidates, true);
+            return keep;
+        }
+        // Sort by (size desc, id asc) packed into one long: high word = size, low word = ~id.
+        long[] order = new long[candidates];
+        for (int c = 0; c < candidates; c++) {
+            long size = memberOffsets[c + 1] - memberOffsets[c];
+            order[c] = (size << 32) | (~c & 0xFFFFFFFFL);
+        }
+        Arrays.sort(order);
+        for (int k = 0; k < topSccs; k++) {
+            keep[~(int) order[candidates - 1 - k]] = true;
+        }
+        return keep;
+    }
+
+    private boolean sampled(int edgeIndex) {
+        if (edgeSampleRate >= 1.0) {
+            return true;
+        }
+        long h = (sampleSeed ^ edgeIndex) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (h >>> 11) * 0x1.0p-53 < edgeSampleRate;
+    }
+
+    private static void writeEdge(DotWriter out, int u, int v, int weight) throws IOException {
+        out.write("    ").writeInt(u).write(" -> ").writeInt(v).write(" [label=\"").writeInt(weight).write("\"];\n");
+    }
+
+    private DotWriter open(Path file) throws IOException {
+        OutputStream stream = Files.newOutputStream(file);
+        if (gzip || file.getFileName().toString().endsWith(".gz")) {
+            stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+        }
+        return new DotWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+
+    /**
+     * Thin chaining wrapper that formats ints into a reused char buffer instead of allocating strings.
+     */
+    private static final class DotWriter implements AutoCloseable {
+        private final Writer out;
+        private final char[] digits = new char[20];
+
+        DotWriter(Writer out) {
+            this.out = out;
+        }
+
+        DotWriter write(String s) throws IOException {
+            out.write(s);
+            return this;
+        }
+
+        DotWriter writeInt(int value) throws IOException {
+            return writeLong(value);
+        }
+
+        DotWriter writeLong(long value) throws IOException {
+            if (value == Long.MIN_VALUE) {
+                out.write(Long.toString(value));
+                return this;
+            }
+            boolean negative = value < 0;
+            long rest = negative ? -value : value;
+            int pos = digits.length;
+            do {
+                digits[--pos] = (char) ('0' + rest % 10);
+                rest /= 10;
+            } while (rest != 0);
+            if (negative) {
+                digits[--pos] = '-';
+            }
+            out.write(digits, pos, digits.length - pos);
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -41,4 +41,8 @@ public class Graph {
     public Collection<Integer> getVertices() {
         return adj.keySet();
     }
+
+    public CsrGraph toCsr() {
+        return CsrGraph.fromGraph(this);
+    }
 }
\ No newline at end of file
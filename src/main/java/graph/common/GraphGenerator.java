@@ -0,0 +1,280 @@
+package graph.common;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic graph generator for large benchmark workloads. Edges are sampled as packed
+ * {@code (u << 32) | v} longs, deduplicated by sorting, and laid out directly as CSR; weights
+ * (1..10) are derived from a hash of the seed and the edge, so they need no extra storage.
+ * The same seed and parameters always produce the same graph, with exactly the requested number
+ * of edges: if sampling cannot find that many distinct ones (E close to the number of vertex pairs
+ * the shape allows), an {@link IllegalArgumentException} is thrown rather than a smaller graph.
+ */
+public class GraphGenerator {
+    public static final int MAX_WEIGHT = 10;
+    private static final int MAX_STALLED_ROUNDS = 8;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    private interface EdgeSampler {
+        /**
+         * Returns a packed edge key, or -1 to reject the sample.
+         */
+        long sample(SplittableRandom random);
+    }
+
+    /**
+     * Random DAG: every edge goes from a lower to a higher vertex id.
+     */
+    public CsrGraph dag(int V, int E) {
+        requireVertices(V, 2);
+        E = (int) Math.min(E, (long) V * (V - 1) / 2);
+        return generate(V, E, new long[0], r -> {
+            int u = r.nextInt(V - 1);
+            int v = u + 1 + r.nextInt(V - 1 - u);
+            return LongIntHashMap.key(u, v);
+        });
+    }
+
+    /**
+     * {@code numScc} planted strongly connected components of {@code sccSize} consecutive vertices
+     * (each closed by a ring), extra random edges inside them, and forward (acyclic) edges
+     * between components and the remaining singleton vertices.
+     */
+    public CsrGraph plantedScc(int V, int E, int numScc, int sccSize) {
+        requireVertices(V, 2);
+        if (sccSize < 2 || (long) numScc * sccSize > V) {
+            throw new IllegalArgumentException("Cannot plant " + numScc + " SCCs of size " + sccSize + " in V=" + V);
+        }
+        int planted = numScc * sccSize;
+        long[] ring = new long[planted];
+        for (int c = 0; c < numScc; c++) {
+            int start = c * sccSize;
+            for (int i = 0; i < sccSize; i++) {
+                ring[start + i] = LongIntHashMap.key(start + i, start + (i + 1) % sccSize);
+            }
+        }
+        E = Math.max(E, planted);
+        return generate(V, E, ring, r -> {
+            if (r.nextBoolean()) {
+                int start = r.nextInt(numScc) * sccSize;
+                int u = start + r.nextInt(sccSize);
+                int v = start + r.nextInt(sccSize);
+                return u == v ? -1 : LongIntHashMap.key(u, v);
+            }
+            int u = r.nextInt(V - 1);
+            int v = u + 1 + r.nextInt(V - 1 - u);
+            if (u < planted && v < planted && u / sccSize == v / sccSize) {
+                return -1;
+            }
+            return LongIntHashMap.key(u, v);
+        });
+    }
+
+    /**
+     * Directed graph with power-law skewed endpoints: low vertex ids act as hubs. Larger
+     * exponents give heavier skew; cycles are allowed.
+     */
+    public CsrGraph powerLaw(int V, int E, double exponent) {
+        requireVertices(V, 2);
+        if (exponent < 1.0) {
+            throw new IllegalArgumentException("Exponent must be >= 1, got " + exponent);
+        }
+        return generate(V, E, new long[0], r -> {
+            int u = (int) (V * Math.pow(r.nextDouble(), exponent));
+            int v = (int) (V * Math.pow(r.nextDouble(), exponent));
+            return u == v ? -1 : LongIntHashMap.key(u, v);
+        });
+    }
+
+    /**
+     * Layered DAG of {@code layers * width} vertices; edges connect a layer to one of the next two.
+     */
+    public CsrGraph layered(int layers, int width, int E) {
+        if (layers < 2 || width < 1) {
+            throw new IllegalArgumentException("Need at least 2 layers of width >= 1");
+        }
+        int V = Math.multiplyExact(layers, width);
+        return generate(V, E, new long[0], r -> {
+            int layer = r.nextInt(layers - 1);
+            int nextLayer = Math.min(layers - 1, layer + 1 + r.nextInt(2));
+            int u = layer * width + r.nextInt(width);
+            int v = nextLayer * width + r.nextInt(width);
+            return LongIntHashMap.key(u, v);
+        });
+    }
+
+    private CsrGraph generate(int V, int E, long[] required, EdgeSampler sampler) {
+        if (E < 0) {
+            throw new IllegalArgumentException("Edge count must be non-negative");
+        }
+        long[] keys = Arrays.copyOf(required, Math.max(E, required.length));
+        int count = unique(keys, required.length);
+        // Each round tops up the missing edges; stop only after several rounds add nothing new.
+        for (int stalled = 0; stalled < MAX_STALLED_ROUNDS && count < keys.length; ) {
+            int before = count;
+            int filled = count;
+            int attempts = 0;
+            int maxAttempts = 4 * (keys.length - count) + 64;
+            while (filled < keys.length && attempts++ < maxAttempts) {
+                long key = sampler.sample(random);
+                if (key >= 0) {
+                    keys[filled++] = key;
+                }
+            }
+            count = unique(keys, filled);
+            stalled = count > before ? 0 : stalled + 1;
+        }
+        if (count < keys.length) {
+            throw new IllegalArgumentException("Could only place " + count + " distinct edges of "
+                    + keys.length + " requested for V=" + V + "; the shape has too few free vertex pairs");
+        }
+        return toCsr(V, keys, count);
+    }
+
+    /**
+     * Sorts {@code keys[0..count)} and compacts duplicates in place; returns the unique count.
+     */
+    static int unique(long[] keys, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.parallelSort(keys, 0, count);
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (keys[i] != keys[unique - 1]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return unique;
+    }
+
+    private CsrGraph toCsr(int V, long[] sortedKeys, int count) {
+        int[] offsets = new int[V + 1];
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            long key = sortedKeys[i];
+            offsets[LongIntHashMap.keyHigh(key) + 1]++;
+            targets[i] = LongIntHashMap.keyLow(key);
+            weights[i] = weight(key);
+        }
+        for (int u = 0; u < V; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        return CsrGraph.wrap(V, offsets, targets, weights);
+    }
+
+    private int weight(long key) {
+        long h = (key ^ seed) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return 1 + (int) Long.remainderUnsigned(h, MAX_WEIGHT);
+    }
+
+    private static void requireVertices(int V, int min) {
+        if (V < min) {
+            throw new IllegalArgumentException("Need at least " + min + " vertices, got " + V);
+        }
+    }
+
+    /**
+     * Command line: {@code --type dag|scc|powerlaw|layered --vertices N --edges E --out FILE}
+     * with optional {@code --seed}, {@code --sccs}, {@code --scc-size}, {@code --exponent},
+     * {@code --layers}. Files ending in {@link BinaryGraphFile#EXTENSION} are written in the
+     * binary format, anything else as JSON.
+     */
+    public static void main(String[] args) throws IOException {
+        String type = "dag";
+        int vertices = 1_000_000;
+        int edges = 4_000_000;
+        long seed = DatasetGenerator.DEFAULT_SEED;
+        int sccs = 10;
+        int sccSize = 1000;
+        double exponent = 2.0;
+        int layers = 100;
+        String out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--type":
+                    type = value;
+                    break;
+                case "--vertices":
+                    vertices = Integer.parseInt(value);
+                    break;
+                case "--edges":
+                    edges = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--sccs":
+                    sccs = Integer.parseInt(value);
+                    break;
+                case "--scc-size":
+                    sccSize = Integer.parseInt(value);
+                    break;
+                case "--exponent":
+                    exponent = Double.parseDouble(value);
+                    break;
+                case "--layers":
+                    layers = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    out = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("--out is required");
+        }
+
+        GraphGenerator generator = new GraphGenerator(seed);
+        long start = System.nanoTime();
+        CsrGraph graph;
+        switch (type) {
+            case "dag":
+                graph = generator.dag(vertices, edges);
+                break;
+            case "scc":
+                graph = generator.plantedScc(vertices, edges, sccs, sccSize);
+                break;
+            case "powerlaw":
+                graph = generator.powerLaw(vertices, edges, exponent);
+                break;
+            case "layered":
+                graph = generator.layered(layers, Math.max(1, vertices / layers), edges);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown graph type " + type);
+        }
+        long generated = System.nanoTime();
+
+        if (out.endsWith(BinaryGraphFile.EXTENSION)) {
+            BinaryGraphFile.write(Paths.get(out), graph, true, 0, "edge");
+        } else {
+            GraphUtils.exportToJson(graph, 0, "edge", out, false);
+        }
+        System.out.printf("Generated %s graph V=%d E=%d in %d ms, written to %s in %d ms%n",
+                type, graph.getV(), graph.getE(), (generated - start) / 1_000_000, out,
+                (System.nanoTime() - generated) / 1_000_000);
+    }
+}
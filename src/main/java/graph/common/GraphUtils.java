@@ -1,53 +1,60 @@
 package graph.common;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import graph.common.Graph;
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
 
 public class GraphUtils {
     public static void exportToDot(Graph graph, String filename) throws IOException {
-        StringBuilder dot = new StringBuilder();
-        dot.append("digraph G {\n");
-        dot.append("    rankdir=LR; // Left to Right layout\n");
-
-        // 1. Nodes (Vertices)
-        for (int i = 0; i < graph.getV(); i++) {
-            dot.append("    ").append(i).append(" [label=\"").append(i).append("\"];\n");
-        }
-
-        // 2. Edges: Using direct public field access (.target, .weight)
-        for (int u = 0; u < graph.getV(); u++) {
-            for (Edge edge : graph.getAdj(u)) {
-                dot.append("    ").append(u)
-                        .append(" -> ").append(edge.target)
-                        .append(" [label=\"").append(edge.weight).append("\"];\n");
-            }
-        }
-        dot.append("}\n");
+        exportToDot(graph.toCsr(), filename);
+    }
 
-        Files.write(Paths.get(filename), dot.toString().getBytes());
+    public static void exportToDot(CsrGraph graph, String filename) throws IOException {
+        new DotExporter().exportGraph(graph, Paths.get(filename));
     }
 
     public static void exportCondensationToDot(Graph cGraph, String filename, List<List<Integer>> sccs) throws IOException {
-        StringBuilder dot = new StringBuilder();
-        dot.append("digraph CondensationGraph {\n");
-        dot.append("    rankdir=LR;\n");
+        exportCondensationToDot(cGraph.toCsr(), filename, sccs);
+    }
 
-        for (int i = 0; i < cGraph.getV(); i++) {
-            String label = "SCC " + i + "\\n{" + sccs.get(i).toString().replaceAll("[\\[\\]\\s]", "") + "}";
-            dot.append("    ").append(i).append(" [shape=box, label=\"").append(label).append("\"];\n");
-        }
-        for (int u = 0; u < cGraph.getV(); u++) {
-            for (Edge edge : cGraph.getAdj(u)) {
-                dot.append("    ").append(u)
-                        .append(" -> ").append(edge.target)
-                        .append(" [label=\"").append(edge.weight).append("\"];\n");
+    public static void exportCondensationToDot(CsrGraph cGraph, String filename, List<List<Integer>> sccs) throws IOException {
+        new DotExporter().exportCondensation(cGraph, sccs, Paths.get(filename));
+    }
+
+    /**
+     * Streams a graph in the JSON layout read by {@link DataLoader} without building
+     * an intermediate object tree.
+     */
+    public static void exportToJson(CsrGraph graph, int source, String weightModel, String filename, boolean pretty)
+            throws IOException {
+        try (JsonGenerator json = new JsonFactory().createGenerator(new File(filename), JsonEncoding.UTF8)) {
+            if (pretty) {
+                json.useDefaultPrettyPrinter();
+            }
+            json.writeStartObject();
+            json.writeBooleanField("directed", true);
+            json.writeNumberField("n", graph.getV());
+            json.writeNumberField("source", source);
+            json.writeStringField("weight_model", weightModel);
+            json.writeArrayFieldStart("edges");
+            int[] targets = graph.getTargets();
+            int[] weights = graph.getWeights();
+            for (int u = 0; u < graph.getV(); u++) {
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    json.writeStartObject();
+                    json.writeNumberField("u", u);
+                    json.writeNumberField("v", targets[i]);
+                    json.writeNumberField("w", weights[i]);
+                    json.writeEndObject();
+                }
             }
+            json.writeEndArray();
+            json.writeEndObject();
         }
-        dot.append("}\n");
-
-        Files.write(Paths.get(filename), dot.toString().getBytes());
     }
-}
\ No newline at end of file
+}
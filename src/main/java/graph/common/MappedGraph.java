@@ -0,0 +1,106 @@
+package graph.common;
+
+import java.nio.IntBuffer;
+
+/**
+ * Read-only CSR graph backed by a memory-mapped {@link BinaryGraphFile}.
+ */
+public class MappedGraph {
+    private final int V;
+    private final int E;
+    private final boolean directed;
+    private final int source;
+    private final String weightModel;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer nodeWeights;
+
+    MappedGraph(int V, int E, boolean directed, int source, String weightModel,
+                IntBuffer offsets, IntBuffer targets, IntBuffer weights, IntBuffer nodeWeights) {
+        this.V = V;
+        this.E = E;
+        this.directed = directed;
+        this.source = source;
+        this.weightModel = weightModel;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nodeWeights = nodeWeights;
+    }
+
+    public int getV() {
+        return V;
+    }
+
+    public int getE() {
+        return E;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public String getWeightModel() {
+        return weightModel;
+    }
+
+    public int edgeStart(int u) {
+        return offsets.get(u);
+    }
+
+    public int edgeEnd(int u) {
+        return offsets.get(u + 1);
+    }
+
+    public int target(int edgeIndex) {
+        return targets.get(edgeIndex);
+    }
+
+    public int weight(int edgeIndex) {
+        return weights.get(edgeIndex);
+    }
+
+    public IntBuffer offsets() {
+        return offsets.duplicate();
+    }
+
+    public IntBuffer targets() {
+        return targets.duplicate();
+    }
+
+    public IntBuffer weights() {
+        return weights.duplicate();
+    }
+
+    public boolean hasNodeWeights() {
+        return nodeWeights != null;
+    }
+
+    /**
+     * Per-vertex durations of the node weight model, or {@code null} if the file has none.
+     */
+    public IntBuffer nodeWeights() {
+        return nodeWeights == null ? null : nodeWeights.duplicate();
+    }
+
+    /**
+     * A {@link CsrGraph} reading the mapped sections in place; nothing is copied here.
+     */
+    public CsrGraph toCsr() {
+        return CsrGraph.wrap(V, offsets, targets, weights);
+    }
+
+    public DataLoader.GraphFile toGraphFile() {
+        int[] durations = null;
+        if (nodeWeights != null) {
+            durations = new int[V];
+            nodeWeights.duplicate().get(durations);
+        }
+        return new DataLoader.GraphFile(toCsr(), directed, source, weightModel, durations);
+    }
+}
@@ -1,23 +1,126 @@
 package graph.common;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Operation counters and timings shared by the algorithms.
+ * <p>
+ * Counters are {@link LongAdder}s, so one instance may be shared by several threads and counts
+ * do not overflow past 2^31. Algorithms accumulate counts in locals and flush them once per call,
+ * so the hot loops never touch this class. {@link #disabled()} returns an instance on which every
+ * call is a no-op.
+ * <p>
+ * Coarse phases ({@link Phase}) are timed with {@link #startPhase}/{@link #stopPhase}: each phase
+ * keeps a log2 latency histogram and emits a {@link PhaseEvent} to JDK Flight Recorder when a
+ * recording with the {@code graph.Phase} event is active.
+ */
 public class Metrics {
-    private long startTime;
-    private long endTime;
+    public enum Phase {
+        SCC, CONDENSATION, TOPO_SORT, PATHS
+    }
+
+    /**
+     * Handle of a running phase, returned by {@link #startPhase} and passed back to {@link #stopPhase}.
+     */
+    public static final class PhaseTimer {
+        private final Phase phase;
+        private final long start;
+        private final PhaseEvent event;
+
+        private PhaseTimer(Phase phase, long start, PhaseEvent event) {
+            this.phase = phase;
+            this.start = start;
+            this.event = event;
+        }
+    }
+
+    private static final Metrics DISABLED = new Metrics(false);
+    private static final PhaseTimer NO_TIMER = new PhaseTimer(null, 0, null);
+
+    private final boolean enabled;
+
+    private volatile long startTime;
+    private volatile long endTime;
+
+    private final LongAdder dfsVisits = new LongAdder();
+    private final LongAdder edgesProcessed = new LongAdder();
+
+    private final LongAdder queuePushes = new LongAdder();
+    private final LongAdder queuePops = new LongAdder();
 
-    private int dfsVisits = 0;
-    private int edgesProcessed = 0;
+    private final LongAdder relaxations = new LongAdder();
 
-    private int queuePushes = 0;
-    private int queuePops = 0;
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
 
-    private int relaxations = 0;
+    public Metrics() {
+        this(true);
+    }
+
+    public Metrics(boolean enabled) {
+        this.enabled = enabled;
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    public static Metrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
 
     public void startTimer() {
-        this.startTime = System.nanoTime();
+        if (enabled) {
+            this.startTime = System.nanoTime();
+        }
     }
 
     public void stopTimer() {
-        this.endTime = System.nanoTime();
+        if (enabled) {
+            this.endTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Starts timing a phase; also restarts the plain timer so {@link #getElapsedTimeNanos()} keeps working.
+     */
+    public PhaseTimer startPhase(Phase phase) {
+        if (!enabled) {
+            return NO_TIMER;
+        }
+        PhaseEvent event = new PhaseEvent();
+        if (event.isEnabled()) {
+            event.phase = phase.name();
+            event.begin();
+        } else {
+            event = null;
+        }
+        long now = System.nanoTime();
+        startTime = now;
+        return new PhaseTimer(phase, now, event);
+    }
+
+    public void stopPhase(PhaseTimer timer) {
+        if (timer.phase == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        endTime = now;
+        histograms.get(timer.phase).record(now - timer.start);
+        if (timer.event != null) {
+            timer.event.end();
+            if (timer.event.shouldCommit()) {
+                timer.event.commit();
+            }
+        }
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+        return histograms.get(phase);
     }
 
     public long getElapsedTimeNanos() {
@@ -29,48 +132,76 @@ public class Metrics {
     }
 
     public void incrementDfsVisits() {
-        dfsVisits++;
+        incrementDfsVisits(1);
+    }
+
+    public void incrementDfsVisits(long count) {
+        if (enabled) {
+            dfsVisits.add(count);
+        }
     }
 
-    public void incrementEdgesProcessed(int count) {
-        edgesProcessed += count;
+    public void incrementEdgesProcessed(long count) {
+        if (enabled) {
+            edgesProcessed.add(count);
+        }
     }
+
     public void incrementQueuePushes() {
-        queuePushes++;
+        incrementQueuePushes(1);
+    }
+
+    public void incrementQueuePushes(long count) {
+        if (enabled) {
+            queuePushes.add(count);
+        }
     }
 
     public void incrementQueuePops() {
-        queuePops++;
+        incrementQueuePops(1);
+    }
+
+    public void incrementQueuePops(long count) {
+        if (enabled) {
+            queuePops.add(count);
+        }
     }
 
     public void incrementRelaxations() {
-        relaxations++;
+        incrementRelaxations(1);
     }
-    public int getDfsVisits() {
-        return dfsVisits;
+
+    public void incrementRelaxations(long count) {
+        if (enabled) {
+            relaxations.add(count);
+        }
+    }
+
+    public long getDfsVisits() {
+        return dfsVisits.sum();
     }
 
-    public int getEdgesProcessed() {
-        return edgesProcessed;
+    public long getEdgesProcessed() {
+        return edgesProcessed.sum();
     }
 
-    public int getQueuePushes() {
-        return queuePushes;
+    public long getQueuePushes() {
+        return queuePushes.sum();
     }
 
-    public int getQueuePops() {
-        return queuePops;
+    public long getQueuePops() {
+        return queuePops.sum();
     }
 
-    public int getRelaxations() {
-        return relaxations;
+    public long getRelaxations() {
+        return relaxations.sum();
     }
 
     @Override
     public String toString() {
         return String.format(
                 "Time (ms): %d, DFS Visits: %d, Edges Processed: %d, Queue Pushes: %d, Queue Pops: %d, Relaxations: %d",
-                getElapsedTimeMillis(), dfsVisits, edgesProcessed, queuePushes, queuePops, relaxations
+                getElapsedTimeMillis(), getDfsVisits(), getEdgesProcessed(), getQueuePushes(), getQueuePops(), getRelaxations()
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package graph.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Every shortest (or longest) path out of one source at once, stored as the predecessor tree:
+ * the path to {@code v} is the path to {@code parent(v)} plus {@code v}, so all paths share their
+ * prefixes and the whole set costs O(V) ints instead of one list per target.
+ */
+public final class PathForest {
+    /**
+     * Receives one path per reachable vertex. {@code path[0 .. length)} runs from the root to
+     * {@code target}; the array is reused between calls and must be copied to be kept.
+     */
+    public interface PathVisitor {
+        void accept(int target, int[] path, int length);
+    }
+
+    private final int root;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] childOffsets;
+    private final int[] children;
+
+    /**
+     * @param predecessor predecessor of every vertex, -1 for the root and unreached vertices;
+     *                    kept by reference, so pass a copy if the source array is reused
+     */
+    public PathForest(int root, int[] predecessor) {
+        int V = predecessor.length;
+        this.root = root;
+        this.parent = predecessor;
+        childOffsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            if (v != root && parent[v] >= 0) {
+                childOffsets[parent[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < V; v++) {
+            childOffsets[v + 1] += childOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(childOffsets, V);
+        children = new int[childOffsets[V]];
+        for (int v = 0; v < V; v++) {
+            if (v != root && parent[v] >= 0) {
+                children[cursor[parent[v]]++] = v;
+            }
+        }
+
+        // BFS from the root; predecessor chains that do not lead back to it stay at depth -1.
+        depth = new int[V];
+        Arrays.fill(depth, -1);
+        depth[root] = 0;
+        int[] queue = new int[V];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = childOffsets[u]; i < childOffsets[u + 1]; i++) {
+                depth[children[i]] = depth[u] + 1;
+                queue[tail++] = children[i];
+            }
+        }
+    }
+
+    public int getRoot() {
+        return root;
+    }
+
+    public boolean isReachable(int v) {
+        return depth[v] >= 0;
+    }
+
+    /**
+     * Number of vertices on the path to {@code v}, 0 if unreachable.
+     */
+    public int pathLength(int v) {
+        return depth[v] + 1;
+    }
+
+    public int parent(int v) {
+        return depth[v] > 0 ? parent[v] : -1;
+    }
+
+    /**
+     * Writes the path to {@code target} into {@code buffer} starting at index 0.
+     * @return the number of vertices written, 0 if unreachable
+     */
+    public int pathTo(int target, int[] buffer) {
+        int length = pathLength(target);
+        checkCapacity(target, length, buffer);
+        for (int k = length - 1, v = target; k >= 0; k--, v = parent[v]) {
+            buffer[k] = v;
+        }
+        return length;
+    }
+
+    /**
+     * Visits the path to every reachable vertex in depth-first order, root included. Each vertex
+     * costs O(1): the shared prefix stays in the buffer while its subtree is visited.
+     */
+    public void forEachPath(PathVisitor visitor) {
+        int V = parent.length;
+        int[] path = new int[V];
+        int[] cursor = new int[V];
+        int top = 0;
+        path[0] = root;
+        cursor[0] = childOffsets[root];
+        visitor.accept(root, path, 1);
+        while (top >= 0) {
+            int u = path[top];
+            if (cursor[top] == childOffsets[u + 1]) {
+                top--;
+                continue;
+            }
+            int child = children[cursor[top]++];
+            path[++top] = child;
+            cursor[top] = childOffsets[child];
+            visitor.accept(child, path, top + 1);
+        }
+    }
+
+    /**
+     * Writes the path to {@code target} into {@code buffer} from index 0 by following
+     * {@code predecessor} links back to a vertex whose predecessor is -1. For engines that keep a
+     * bare predecessor array; callers check reachability first.
+     * @return the number of vertices written
+     */
+    public static int walkPredecessors(int[] predecessor, int target, int[] buffer) {
+        int length = 0;
+        for (int v = target; v != -1; v = predecessor[v]) {
+            length++;
+        }
+        checkCapacity(target, length, buffer);
+        int k = length;
+        for (int v = target; v != -1; v = predecessor[v]) {
+            buffer[--k] = v;
+        }
+        return length;
+    }
+
+    /**
+     * Boxed variant of {@link #walkPredecessors(int[], int, int[])}.
+     */
+    public static List<Integer> walkPredecessors(int[] predecessor, int target) {
+        List<Integer> path = new ArrayList<>();
+        for (int v = target; v != -1; v = predecessor[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private static void checkCapacity(int target, int length, int[] buffer) {
+        if (length > buffer.length) {
+            throw new IllegalArgumentException("Path to " + target + " has " + length
+                    + " vertices, buffer holds " + buffer.length);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package graph.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one algorithm phase (see {@link Metrics.Phase}). Enable it with
+ * {@code -XX:StartFlightRecording} and look for {@code graph.Phase} in JDK Mission Control.
+ */
+@Name("graph.Phase")
+@Label("Graph Algorithm Phase")
+@Category("Graph Algorithms")
+@Description("Duration of an SCC, condensation, topological sort or path phase")
+@StackTrace(false)
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,214 @@
+package graph.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A permutation of vertex ids chosen so that vertices used together sit close together in the
+ * per-vertex {@code int[]} arrays of the algorithms. {@link #apply} builds the permuted graph; the
+ * {@code mapToOld} methods translate results computed on it back to the original ids.
+ * <ul>
+ *   <li>{@link Strategy#BFS}: breadth-first order over out-edges, new roots in id order;</li>
+ *   <li>{@link Strategy#DEGREE}: highest total degree first, so hubs share cache lines;</li>
+ *   <li>{@link Strategy#CONDENSATION}: grouped by SCC, components in topological order of the
+ *       condensation, so path passes sweep the arrays front to back.</li>
+ * </ul>
+ */
+public final class VertexRelabeling {
+    public enum Strategy {
+        BFS, DEGREE, CONDENSATION;
+
+        public static Strategy parse(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    private final int[] newId;
+    private final int[] oldId;
+
+    private VertexRelabeling(int[] newId, int[] oldId) {
+        this.newId = newId;
+        this.oldId = oldId;
+    }
+
+    /**
+     * Wraps an explicit permutation: vertex {@code v} becomes {@code newId[v]}.
+     */
+    public static VertexRelabeling fromNewIds(int[] newId) {
+        int[] oldId = new int[newId.length];
+        Arrays.fill(oldId, -1);
+        for (int v = 0; v < newId.length; v++) {
+            int id = newId[v];
+            if (id < 0 || id >= newId.length || oldId[id] != -1) {
+                throw new IllegalArgumentException("Not a permutation: vertex " + v + " -> " + id);
+            }
+            oldId[id] = v;
+        }
+        return new VertexRelabeling(newId, oldId);
+    }
+
+    private static VertexRelabeling fromOldIds(int[] oldId) {
+        int[] newId = new int[oldId.length];
+        for (int i = 0; i < oldId.length; i++) {
+            newId[oldId[i]] = i;
+        }
+        return new VertexRelabeling(newId, oldId);
+    }
+
+    public static VertexRelabeling bfs(CsrGraph graph) {
+        int V = graph.getV();
+        int[] order = new int[V];
+        boolean[] seen = new boolean[V];
+        int[] targets = graph.getTargets();
+        int tail = 0;
+        for (int root = 0; root < V; root++) {
+            if (seen[root]) {
+                continue;
+            }
+            seen[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while (head < tail) {
+                int u = order[head++];
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = targets[i];
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        order[tail++] = v;
+                    }
+                }
+            }
+        }
+        return fromOldIds(order);
+    }
+
+    public static VertexRelabeling byDegree(CsrGraph graph) {
+        int V = graph.getV();
+        int[] degree = new int[V];
+        for (int u = 0; u < V; u++) {
+            degree[u] += graph.outDegree(u);
+        }
+        for (int t : graph.getTargets()) {
+            degree[t]++;
+        }
+        // Highest degree first, ties by original id: sort (~degree, id) packed into one long.
+        long[] keys = new long[V];
+        for (int v = 0; v < V; v++) {
+            keys[v] = ((long) ~degree[v] << 32) | v;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[V];
+        for (int i = 0; i < V; i++) {
+            order[i] = (int) keys[i];
+        }
+        return fromOldIds(order);
+    }
+
+    /**
+     * @param sccId component of every vertex
+     * @param componentOrder topological order of the condensation
+     */
+    public static VertexRelabeling byComponentOrder(int[] sccId, int[] componentOrder) {
+        int numScc = componentOrder.length;
+        int[] rank = new int[numScc];
+        for (int p = 0; p < numScc; p++) {
+            rank[componentOrder[p]] = p;
+        }
+        int[] start = new int[numScc + 1];
+        for (int id : sccId) {
+            start[rank[id] + 1]++;
+        }
+        for (int p = 0; p < numScc; p++) {
+            start[p + 1] += start[p];
+        }
+        int[] newId = new int[sccId.length];
+        for (int v = 0; v < sccId.length; v++) {
+            newId[v] = start[rank[sccId[v]]]++;
+        }
+        return fromNewIds(newId);
+    }
+
+    /**
+     * The graph with every vertex renamed; each vertex keeps its out-edges in their original order.
+     */
+    public CsrGraph apply(CsrGraph graph) {
+        int V = graph.getV();
+        int[] offsets = new int[V + 1];
+        for (int n = 0; n < V; n++) {
+            offsets[n + 1] = offsets[n] + graph.outDegree(oldId[n]);
+        }
+        int[] targets = new int[graph.getE()];
+        int[] weights = new int[graph.getE()];
+        int[] oldTargets = graph.getTargets();
+        int[] oldWeights = graph.getWeights();
+        for (int n = 0; n < V; n++) {
+            int u = oldId[n];
+            int slot = offsets[n];
+            for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++, slot++) {
+                targets[slot] = newId[oldTargets[i]];
+                weights[slot] = oldWeights[i];
+            }
+        }
+        return CsrGraph.wrap(V, offsets, targets, weights);
+    }
+
+    public int size() {
+        return newId.length;
+    }
+
+    public int toNew(int v) {
+        return newId[v];
+    }
+
+    public int toOld(int v) {
+        return oldId[v];
+    }
+
+    /**
+     * Per-vertex values indexed by original id into values indexed by new id.
+     */
+    public int[] mapToNew(int[] byOld) {
+        int[] byNew = new int[byOld.length];
+        for (int n = 0; n < byNew.length; n++) {
+            byNew[n] = byOld[oldId[n]];
+        }
+        return byNew;
+    }
+
+    /**
+     * Per-vertex values computed on the relabeled graph, re-indexed by original id.
+     */
+    public int[] mapToOld(int[] byNew) {
+        int[] byOld = new int[byNew.length];
+        for (int v = 0; v < byOld.length; v++) {
+            byOld[v] = byNew[newId[v]];
+        }
+        return byOld;
+    }
+
+    public long[] mapToOld(long[] byNew) {
+        long[] byOld = new long[byNew.length];
+        for (int v = 0; v < byOld.length; v++) {
+            byOld[v] = byNew[newId[v]];
+        }
+        return byOld;
+    }
+
+    /**
+     * Like {@link #mapToOld(int[])} for arrays whose values are vertex ids too (predecessors);
+     * negative values such as -1 are kept as they are.
+     */
+    public int[] mapVertexArrayToOld(int[] byNew) {
+        int[] byOld = new int[byNew.length];
+        for (int v = 0; v < byOld.length; v++) {
+            int value = byNew[newId[v]];
+            byOld[v] = value < 0 ? value : oldId[value];
+        }
+        return byOld;
+    }
+
+    public List<Integer> mapPathToOld(List<Integer> path) {
+        return path.stream().map(v -> oldId[v]).collect(Collectors.toList());
+    }
+}
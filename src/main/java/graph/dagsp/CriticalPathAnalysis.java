@@ -0,0 +1,262 @@
+package graph.dagsp;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Critical path method (CPM) over a DAG: one forward pass over the topological order gives the
+ * earliest start of every vertex, one backward pass gives the latest start, and slack is their
+ * difference. Both passes are O(V + E).
+ * <p>
+ * Two weight models are supported, matching {@code weight_model} in the input files:
+ * <ul>
+ *   <li>{@link WeightModel#EDGE}: edge weights are delays, vertices are instantaneous events;</li>
+ *   <li>{@link WeightModel#NODE}: every vertex is a task with its own duration, edge weights are ignored.</li>
+ * </ul>
+ * Times are kept in {@code long} so long chains of large weights do not overflow.
+ */
+public class CriticalPathAnalysis {
+    public enum WeightModel {
+        EDGE, NODE;
+
+        public static WeightModel parse(String name) {
+            return name != null && name.equalsIgnoreCase("node") ? NODE : EDGE;
+        }
+    }
+
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final int[] topoOrder;
+
+    private long[] earliestStart;
+    private long[] latestStart;
+    private long[] duration;
+    private boolean nodeModel;
+    private long projectDuration;
+
+    public CriticalPathAnalysis(CsrGraph graph, Metrics metrics, List<Integer> topoOrder) {
+        this(graph, metrics, topoOrder.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public CriticalPathAnalysis(CsrGraph graph, Metrics metrics, int[] topoOrder) {
+        if (topoOrder.length != graph.getV()) {
+            throw new IllegalArgumentException("Topological order must cover all " + graph.getV()
+                    + " vertices (is the graph acyclic?)");
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.topoOrder = topoOrder;
+    }
+
+    /**
+     * Edge-weighted analysis: a vertex can start once every predecessor has started and the
+     * connecting edge's delay has elapsed.
+     */
+    public void analyze() {
+        run(null);
+    }
+
+    /**
+     * Node-weighted analysis: a vertex can start once every predecessor has finished.
+     * @param durations duration of every vertex; for a condensation DAG see {@link #componentDurations}
+     */
+    public void analyze(int[] durations) {
+        if (durations.length != graph.getV()) {
+            throw new IllegalArgumentException("Expected " + graph.getV() + " durations, got " + durations.length);
+        }
+        run(durations);
+    }
+
+    public void analyze(WeightModel model, int[] durations) {
+        if (model == WeightModel.NODE) {
+            if (durations == null) {
+                throw new IllegalArgumentException("Node weight model requires per-vertex durations");
+            }
+            analyze(durations);
+        } else {
+            analyze();
+        }
+    }
+
+    /**
+     * Sums per-vertex durations into per-component durations, so node-weighted analysis can be
+     * run on the condensation DAG (tasks inside one SCC are treated as one block of work).
+     */
+    public static int[] componentDurations(int[] sccId, int numScc, int[] durations) {
+        long[] sums = new long[numScc];
+        for (int v = 0; v < sccId.length; v++) {
+            sums[sccId[v]] += durations[v];
+        }
+        int[] result = new int[numScc];
+        for (int c = 0; c < numScc; c++) {
+            result[c] = (int) Math.min(Integer.MAX_VALUE, sums[c]);
+        }
+        return result;
+    }
+
+    private void run(int[] durations) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        int V = graph.getV();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        nodeModel = durations != null;
+
+        duration = new long[V];
+        if (nodeModel) {
+            for (int v = 0; v < V; v++) {
+                duration[v] = durations[v];
+            }
+        }
+
+        // 1. Forward pass: earliest start. Vertices without predecessors start at 0.
+        long[] es = new long[V];
+        Arrays.fill(es, UNSET);
+        for (int k = 0; k < V; k++) {
+            int u = topoOrder[k];
+            if (es[u] == UNSET) {
+                es[u] = 0;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                long candidate = es[u] + (nodeModel ? duration[u] : weights[i]);
+                int v = targets[i];
+                if (es[v] == UNSET || candidate > es[v]) {
+                    es[v] = candidate;
+                }
+            }
+        }
+
+        long makespan = 0;
+        for (int v = 0; v < V; v++) {
+            makespan = Math.max(makespan, es[v] + duration[v]);
+        }
+
+        // 2. Backward pass: latest start. Vertices without successors must finish by the makespan.
+        long[] ls = new long[V];
+        for (int k = V - 1; k >= 0; k--) {
+            int u = topoOrder[k];
+            long latest = makespan - duration[u];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                latest = Math.min(latest, ls[targets[i]] - (nodeModel ? duration[u] : weights[i]));
+            }
+            ls[u] = latest;
+        }
+        metrics.incrementEdgesProcessed(2L * graph.getE());
+
+        earliestStart = es;
+        latestStart = ls;
+        projectDuration = makespan;
+        metrics.stopPhase(timer);
+    }
+
+    public long getProjectDuration() {
+        return projectDuration;
+    }
+
+    public long[] getEarliestStart() {
+        return earliestStart;
+    }
+
+    public long[] getLatestStart() {
+        return latestStart;
+    }
+
+    public long getEarliestFinish(int v) {
+        return earliestStart[v] + duration[v];
+    }
+
+    public long getLatestFinish(int v) {
+        return latestStart[v] + duration[v];
+    }
+
+    public long getSlack(int v) {
+        return latestStart[v] - earliestStart[v];
+    }
+
+    public long[] getSlack() {
+        long[] slack = new long[latestStart.length];
+        for (int v = 0; v < slack.length; v++) {
+            slack[v] = latestStart[v] - earliestStart[v];
+        }
+        return slack;
+    }
+
+    public boolean isCritical(int v) {
+        return latestStart[v] == earliestStart[v];
+    }
+
+    /**
+     * An edge is critical when both ends have zero slack and the edge is tight, i.e. delaying it
+     * by any amount delays the whole project.
+     */
+    public boolean isCriticalEdge(int u, int edgeIndex) {
+        int v = graph.target(edgeIndex);
+        return isCritical(u) && isCritical(v) && earliestStart[u] + length(u, edgeIndex) == earliestStart[v];
+    }
+
+    private long length(int u, int edgeIndex) {
+        return nodeModel ? duration[u] : graph.weight(edgeIndex);
+    }
+
+    /**
+     * Enumerates critical paths from a vertex without predecessors to a vertex without successors,
+     * following critical edges only. Their number can be exponential, so at most {@code limit}
+     * paths are returned.
+     */
+    public List<List<Integer>> criticalPaths(int limit) {
+        int V = graph.getV();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        boolean[] hasPredecessor = new boolean[V];
+        for (int t : targets) {
+            hasPredecessor[t] = true;
+        }
+
+        List<List<Integer>> paths = new ArrayList<>();
+        int[] path = new int[V];
+        int[] cursor = new int[V];
+        for (int start = 0; start < V && paths.size() < limit; start++) {
+            if (hasPredecessor[start] || !isCritical(start) || earliestStart[start] != 0) {
+                continue;
+            }
+            // Iterative DFS over critical edges; path[0..depth) is the current prefix.
+            int depth = 0;
+            path[depth++] = start;
+            cursor[start] = offsets[start];
+            while (depth > 0 && paths.size() < limit) {
+                int u = path[depth - 1];
+                if (offsets[u] == offsets[u + 1]) {
+                    List<Integer> found = new ArrayList<>(depth);
+                    for (int j = 0; j < depth; j++) {
+                        found.add(path[j]);
+                    }
+                    paths.add(found);
+                    depth--;
+                    continue;
+                }
+                boolean advanced = false;
+                while (cursor[u] < offsets[u + 1]) {
+                    int i = cursor[u]++;
+                    int v = targets[i];
+                    if (isCritical(v) && earliestStart[u] + length(u, i) == earliestStart[v]) {
+                        cursor[v] = offsets[v];
+                        path[depth++] = v;
+                        advanced = true;
+                        break;
+                    }
+                }
+                if (!advanced) {
+                    depth--;
+                }
+            }
+        }
+        return paths;
+    }
+}
@@ -1,20 +1,42 @@
 package graph.dagsp;
 
-import graph.common.Edge;
+import graph.common.CsrGraph;
 import graph.common.Graph;
 import graph.common.Metrics;
+import graph.common.PathForest;
 
+import java.nio.IntBuffer;
 import java.util.*;
 public class DAGShortestPath {
-    private final Graph graph;
+    private final CsrGraph graph;
     private final Metrics metrics;
     private final List<Integer> topoOrder;
     private final int[] dist;
     private final int[] predecessor;
     private static final int INF = Integer.MAX_VALUE / 2;
+    // Out-degree from which edges are relaxed through the kernel; below it the inline loop is cheaper.
+    static final int KERNEL_MIN_DEGREE = 16;
+    private final RelaxationKernel kernel;
+    // Source of the last full run, -1 after a point-to-point query.
+    private int source = -1;
+    // Point-to-point scratch, allocated on the first query and reused afterwards.
+    private int[] order;
+    private int[] position;
+    private int[] stamp;
+    private int epoch;
+    private int[] slice;
 
     public DAGShortestPath(Graph graph, Metrics metrics, List<Integer> topoOrder) {
+        this(graph.toCsr(), metrics, topoOrder);
+    }
+
+    public DAGShortestPath(CsrGraph graph, Metrics metrics, List<Integer> topoOrder) {
+        this(graph, metrics, topoOrder, RelaxationKernel.best());
+    }
+
+    public DAGShortestPath(CsrGraph graph, Metrics metrics, List<Integer> topoOrder, RelaxationKernel kernel) {
         this.graph = graph;
+        this.kernel = kernel;
         this.metrics = metrics;
         this.topoOrder = topoOrder;
         this.dist = new int[graph.getV()];
@@ -24,50 +46,202 @@ public class DAGShortestPath {
         Arrays.fill(predecessor, -1);
     }
     public void findShortestPaths(int s) {
-        metrics.startTimer();
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        long relaxed = 0;
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
 
+        Arrays.fill(dist, INF);
+        Arrays.fill(predecessor, -1);
+        source = s;
         dist[s] = 0;
         for (int u : topoOrder) {
             if (dist[u] != INF) {
-                for (Edge edge : graph.getAdj(u)) {
-                    int v = edge.target;
+                int from = graph.edgeStart(u);
+                int to = graph.edgeEnd(u);
+                if (to - from >= KERNEL_MIN_DEGREE) {
+                    relaxed += kernel.relaxMin(u, dist[u], from, to, targets, weights, dist, predecessor);
+                    continue;
+                }
+                for (int i = from; i < to; i++) {
+                    int v = targets[i];
 
-                    if (dist[v] > dist[u] + edge.weight) {
-                        dist[v] = dist[u] + edge.weight;
+                    if (dist[v] > dist[u] + weights[i]) {
+                        dist[v] = dist[u] + weights[i];
                         predecessor[v] = u;
-                        metrics.incrementRelaxations();
+                        relaxed++;
                     }
                 }
             }
         }
 
-        metrics.stopTimer();
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
     }
 
     public void findLongestPaths(int s) {
-        metrics.startTimer();
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        long relaxed = 0;
         Arrays.fill(dist, INF);
         Arrays.fill(predecessor, -1);
         final int N_INF = -INF;
         Arrays.fill(dist, N_INF);
+        source = s;
         dist[s] = 0;
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
 
         for (int u : topoOrder) {
             if (dist[u] != N_INF) {
-                for (Edge edge : graph.getAdj(u)) {
-                    int v = edge.target;
+                int from = graph.edgeStart(u);
+                int to = graph.edgeEnd(u);
+                if (to - from >= KERNEL_MIN_DEGREE) {
+                    relaxed += kernel.relaxMax(u, dist[u], from, to, targets, weights, dist, predecessor);
+                    continue;
+                }
+                for (int i = from; i < to; i++) {
+                    int v = targets[i];
+
+                    if (dist[v] < dist[u] + weights[i]) {
+                        dist[v] = dist[u] + weights[i];
+                        predecessor[v] = u;
+                        relaxed++;
+                    }
+                }
+            }
+        }
+
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+    }
+    /**
+     * Shortest distance from {@code s} to {@code t} only. Scans just the topological window between
+     * them, and when few vertices in that window can reach {@code t} only those, so a local query on a
+     * large DAG touches a small part of it. Afterwards only {@code getDistance(t)} and {@code reconstructPath(t)} are
+     * meaningful; entries of other vertices may be left over from earlier queries.
+     */
+    public void findShortestPath(int s, int t) {
+        findPointToPoint(s, t, false);
+    }
+
+    /**
+     * Longest-path counterpart of {@link #findShortestPath(int, int)}.
+     */
+    public void findLongestPath(int s, int t) {
+        findPointToPoint(s, t, true);
+    }
+
+    private void findPointToPoint(int s, int t, boolean longest) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        if (position == null) {
+            indexPositions();
+        }
+        int unreached = longest ? -INF : INF;
+        source = -1;
+        int first = position[s];
+        int last = position[t];
+        dist[t] = unreached;
+        predecessor[t] = -1;
+        long relaxed = 0;
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
 
-                    if (dist[v] < dist[u] + edge.weight) {
-                        dist[v] = dist[u] + edge.weight;
+        int count = first <= last ? markBackward(t, first, last) : 0;
+        if (count < 0) {
+            // Most of the window reaches t: pruning does not pay off, scan the window instead.
+            for (int p = first; p <= last; p++) {
+                dist[order[p]] = unreached;
+                predecessor[order[p]] = -1;
+            }
+            dist[s] = 0;
+            for (int p = first; p <= last; p++) {
+                int u = order[p];
+                if (dist[u] == unreached) {
+                    continue;
+                }
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = targets[i];
+                    int candidate = dist[u] + weights[i];
+                    if (position[v] <= last && (longest ? dist[v] < candidate : dist[v] > candidate)) {
+                        dist[v] = candidate;
+                        predecessor[v] = u;
+                        relaxed++;
+                    }
+                }
+            }
+        } else if (count > 0 && stamp[s] == epoch) {
+            for (int k = 0; k < count; k++) {
+                dist[slice[k]] = unreached;
+                predecessor[slice[k]] = -1;
+                slice[k] = position[slice[k]];
+            }
+            Arrays.sort(slice, 0, count);
+            dist[s] = 0;
+            for (int k = 0; k < count; k++) {
+                int u = order[slice[k]];
+                if (dist[u] == unreached) {
+                    continue;
+                }
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = targets[i];
+                    int candidate = dist[u] + weights[i];
+                    if (stamp[v] == epoch && (longest ? dist[v] < candidate : dist[v] > candidate)) {
+                        dist[v] = candidate;
                         predecessor[v] = u;
-                        metrics.incrementRelaxations();
+                        relaxed++;
                     }
                 }
             }
         }
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+    }
+
+    private void indexPositions() {
+        int n = graph.getV();
+        order = new int[n];
+        position = new int[n];
+        stamp = new int[n];
+        slice = new int[n];
+        int p = 0;
+        for (int v : topoOrder) {
+            order[p] = v;
+            position[v] = p++;
+        }
+    }
 
-        metrics.stopTimer();
+    /**
+     * Walks the reverse graph from {@code t} and stamps every vertex at topological position
+     * {@code >= first} that can reach it, collecting them in {@code slice}. Gives up and returns -1
+     * once more than an eighth of the window {@code [first, last]} is marked.
+     */
+    private int markBackward(int t, int first, int last) {
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        int budget = Math.max((last - first + 1) >>> 3, 1);
+        CsrGraph reverse = graph.reverse();
+        int[] sources = reverse.getTargets();
+        stamp[t] = epoch;
+        slice[0] = t;
+        int count = 1;
+        for (int k = 0; k < count; k++) {
+            int v = slice[k];
+            for (int i = reverse.edgeStart(v); i < reverse.edgeEnd(v); i++) {
+                int u = sources[i];
+                if (stamp[u] != epoch && position[u] >= first) {
+                    if (count == budget) {
+                        return -1;
+                    }
+                    stamp[u] = epoch;
+                    slice[count++] = u;
+                }
+            }
+        }
+        return count;
     }
+
     public List<Integer> reconstructPath(int target) {
         LinkedList<Integer> path = new LinkedList<>();
         if (dist[target] == INF || dist[target] == -INF) {
@@ -87,11 +261,39 @@ public class DAGShortestPath {
         return path;
     }
 
+    /**
+     * Writes the path to {@code target} into {@code buffer} from index 0 without allocating.
+     * @return the number of vertices written, 0 if unreachable
+     */
+    public int reconstructPath(int target, int[] buffer) {
+        if (dist[target] == INF || dist[target] == -INF) {
+            return 0;
+        }
+        return PathForest.walkPredecessors(predecessor, target, buffer);
+    }
+
+    /**
+     * Paths to every vertex of the last full run, sharing prefixes through the predecessor tree.
+     */
+    public PathForest pathForest() {
+        if (source < 0) {
+            throw new IllegalStateException("No full run: call findShortestPaths or findLongestPaths first");
+        }
+        return new PathForest(source, predecessor.clone());
+    }
+
     public int getDistance(int v) {
         return dist[v];
     }
 
+    /**
+     * Read-only view of the distances, valid until the next query on this instance.
+     */
+    public IntBuffer distances() {
+        return IntBuffer.wrap(dist).asReadOnlyBuffer();
+    }
+
     public int[] getAllDistances() {
-        return dist;
+        return dist.clone();
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package graph.dagsp;
+
+/**
+ * {@code double} counterpart of {@link LongSemiring}. Values never overflow; they run to the
+ * infinities, which double as the "no path" sentinels.
+ */
+public interface DoubleSemiring {
+    double zero();
+
+    double one();
+
+    double plus(double a, double b);
+
+    double times(double a, int weight);
+
+    default boolean isSelective() {
+        return true;
+    }
+
+    String name();
+
+    /** Shortest paths: (min, +). */
+    DoubleSemiring MIN_PLUS = new MinPlus();
+
+    /** Longest paths: (max, +). */
+    DoubleSemiring MAX_PLUS = new MaxPlus();
+
+    /** Widest paths: (max, min). */
+    DoubleSemiring BOTTLENECK = new Bottleneck();
+
+    final class MinPlus implements DoubleSemiring {
+        public double zero() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        public double one() {
+            return 0;
+        }
+
+        public double plus(double a, double b) {
+            return Math.min(a, b);
+        }
+
+        public double times(double a, int weight) {
+            return a + weight;
+        }
+
+        public String name() {
+            return "min-plus";
+        }
+    }
+
+    final class MaxPlus implements DoubleSemiring {
+        public double zero() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        public double one() {
+            return 0;
+        }
+
+        public double plus(double a, double b) {
+            return Math.max(a, b);
+        }
+
+        public double times(double a, int weight) {
+            return a + weight;
+        }
+
+        public String name() {
+            return "max-plus";
+        }
+    }
+
+    final class Bottleneck implements DoubleSemiring {
+        public double zero() {
+            return Double.NEGATIVE_INFINITY;
+        }
+
+        public double one() {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        public double plus(double a, double b) {
+            return Math.max(a, b);
+        }
+
+        public double times(double a, int weight) {
+            return Math.min(a, weight);
+        }
+
+        public String name() {
+            return "bottleneck";
+        }
+    }
+}
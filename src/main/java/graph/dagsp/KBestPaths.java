@@ -0,0 +1,271 @@
+package graph.dagsp;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The K shortest or K longest source paths to every vertex of a DAG, in one topological sweep.
+ * Each vertex keeps a sorted top-K list of path lengths together with a back pointer
+ * {@code (predecessor, rank in the predecessor's list)}; a vertex's list is the K-way merge of its
+ * in-neighbours' lists shifted by the edge weight, pulled through a small heap over the reverse
+ * CSR. Memory is O(K·V) in four flat arrays and no path objects are built: a path is only walked
+ * out of the back pointers when asked for.
+ * <p>
+ * Paths are distinct as edge sequences, so parallel edges yield separate paths.
+ */
+public class KBestPaths {
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final int[] topoOrder;
+    private final int k;
+
+    private final long[] length;
+    private final int[] backVertex;
+    private final int[] backRank;
+    private final int[] count;
+    private int source = -1;
+    private boolean longest;
+
+    // Merge heap over in-edges: (key, reverse edge index, rank in the in-neighbour's list).
+    private long[] heapKey;
+    private int[] heapEdge;
+    private int[] heapRank;
+
+    public KBestPaths(CsrGraph graph, Metrics metrics, List<Integer> topoOrder, int k) {
+        this(graph, metrics, topoOrder.stream().mapToInt(Integer::intValue).toArray(), k);
+    }
+
+    public KBestPaths(CsrGraph graph, Metrics metrics, int[] topoOrder, int k) {
+        if (topoOrder.length != graph.getV()) {
+            throw new IllegalArgumentException("Topological order must cover all " + graph.getV()
+                    + " vertices (is the graph acyclic?)");
+        }
+        if (k < 1 || (long) k * graph.getV() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("K=" + k + " is out of range for " + graph.getV() + " vertices");
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.topoOrder = topoOrder;
+        this.k = k;
+        int slots = k * graph.getV();
+        this.length = new long[slots];
+        this.backVertex = new int[slots];
+        this.backRank = new int[slots];
+        this.count = new int[graph.getV()];
+    }
+
+    public void findShortestPaths(int s) {
+        sweep(s, false);
+    }
+
+    public void findLongestPaths(int s) {
+        sweep(s, true);
+    }
+
+    private void sweep(int s, boolean longest) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        this.source = s;
+        this.longest = longest;
+        Arrays.fill(count, 0);
+        CsrGraph reverse = graph.reverse();
+        int[] rOffsets = reverse.getOffsets();
+        int[] rSources = reverse.getTargets();
+        int[] rWeights = reverse.getWeights();
+        ensureHeap(reverse);
+        long pushes = 0;
+        long produced = 0;
+
+        // Longest paths are computed as shortest paths over negated weights.
+        int sign = longest ? -1 : 1;
+        int start = 0;
+        while (topoOrder[start] != s) {
+            start++;
+        }
+        count[s] = 1;
+        length[s * k] = 0;
+        backVertex[s * k] = -1;
+        backRank[s * k] = -1;
+        for (int p = start + 1; p < topoOrder.length; p++) {
+            int v = topoOrder[p];
+            int size = 0;
+            for (int i = rOffsets[v]; i < rOffsets[v + 1]; i++) {
+                int u = rSources[i];
+                if (count[u] > 0) {
+                    size = push(size, length[u * k] + sign * (long) rWeights[i], i, 0);
+                    pushes++;
+                }
+            }
+            int base = v * k;
+            int filled = 0;
+            while (size > 0 && filled < k) {
+                long key = heapKey[0];
+                int edge = heapEdge[0];
+                int rank = heapRank[0];
+                int u = rSources[edge];
+                length[base + filled] = key;
+                backVertex[base + filled] = u;
+                backRank[base + filled] = rank;
+                filled++;
+                if (rank + 1 < count[u]) {
+                    siftDown(size, length[u * k + rank + 1] + sign * (long) rWeights[edge], edge, rank + 1);
+                    pushes++;
+                } else {
+                    size = pollTop(size);
+                }
+            }
+            count[v] = filled;
+            produced += filled;
+        }
+
+        metrics.incrementQueuePushes(pushes);
+        metrics.incrementRelaxations(produced);
+        metrics.stopPhase(timer);
+    }
+
+    private void ensureHeap(CsrGraph reverse) {
+        if (heapKey != null) {
+            return;
+        }
+        int maxInDegree = 0;
+        for (int v = 0; v < reverse.getV(); v++) {
+            maxInDegree = Math.max(maxInDegree, reverse.outDegree(v));
+        }
+        heapKey = new long[maxInDegree];
+        heapEdge = new int[maxInDegree];
+        heapRank = new int[maxInDegree];
+    }
+
+    private int push(int size, long key, int edge, int rank) {
+        int slot = size;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!less(key, edge, rank, parent)) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        set(slot, key, edge, rank);
+        return size + 1;
+    }
+
+    private int pollTop(int size) {
+        size--;
+        if (size > 0) {
+            siftDown(size, heapKey[size], heapEdge[size], heapRank[size]);
+        }
+        return size;
+    }
+
+    private void siftDown(int size, long key, int edge, int rank) {
+        int slot = 0;
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && less(heapKey[right], heapEdge[right], heapRank[right], child)) {
+                child = right;
+            }
+            if (!lessThanEntry(child, key, edge, rank)) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        set(slot, key, edge, rank);
+    }
+
+    /**
+     * Orders by key, then by reverse edge index and rank so equal lengths come out deterministically.
+     */
+    private boolean less(long key, int edge, int rank, int slot) {
+        if (key != heapKey[slot]) {
+            return key < heapKey[slot];
+        }
+        if (edge != heapEdge[slot]) {
+            return edge < heapEdge[slot];
+        }
+        return rank < heapRank[slot];
+    }
+
+    private boolean lessThanEntry(int slot, long key, int edge, int rank) {
+        if (heapKey[slot] != key) {
+            return heapKey[slot] < key;
+        }
+        if (heapEdge[slot] != edge) {
+            return heapEdge[slot] < edge;
+        }
+        return heapRank[slot] < rank;
+    }
+
+    private void move(int from, int to) {
+        heapKey[to] = heapKey[from];
+        heapEdge[to] = heapEdge[from];
+        heapRank[to] = heapRank[from];
+    }
+
+    private void set(int slot, long key, int edge, int rank) {
+        heapKey[slot] = key;
+        heapEdge[slot] = edge;
+        heapRank[slot] = rank;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Number of paths found to {@code target}: {@code min(K, paths that exist)}.
+     */
+    public int pathCount(int target) {
+        return count[target];
+    }
+
+    /**
+     * Length of the {@code rank}-th best path to {@code target}, rank 0 being the best.
+     */
+    public long getLength(int target, int rank) {
+        checkRank(target, rank);
+        long value = length[target * k + rank];
+        return longest ? -value : value;
+    }
+
+    /**
+     * Walks the {@code rank}-th best path to {@code target} into {@code buffer} from index 0.
+     * @return the number of vertices written
+     */
+    public int reconstructPath(int target, int rank, int[] buffer) {
+        checkRank(target, rank);
+        int vertices = 0;
+        for (int v = target, r = rank; v != -1; ) {
+            int slot = v * k + r;
+            v = backVertex[slot];
+            r = backRank[slot];
+            vertices++;
+        }
+        if (vertices > buffer.length) {
+            throw new IllegalArgumentException("Path to " + target + " has " + vertices
+                    + " vertices, buffer holds " + buffer.length);
+        }
+        int pos = vertices;
+        for (int v = target, r = rank; v != -1; ) {
+            buffer[--pos] = v;
+            int slot = v * k + r;
+            v = backVertex[slot];
+            r = backRank[slot];
+        }
+        return vertices;
+    }
+
+    private void checkRank(int target, int rank) {
+        if (source < 0) {
+            throw new IllegalStateException("No sweep yet: call findShortestPaths or findLongestPaths first");
+        }
+        if (rank < 0 || rank >= count[target]) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " of " + count[target] + " paths to " + target);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package graph.dagsp;
+
+/**
+ * Path algebra over {@code long} values for {@link SemiringDAGPaths}. The value of a vertex is
+ * {@code plus} over all paths from the source of {@code times} along the path's edges, starting
+ * from {@link #one()}; {@link #zero()} means "no path".
+ * <p>
+ * Built-in instances saturate instead of wrapping, so long chains of large weights clamp to
+ * {@code Long.MAX_VALUE - 1} / {@code Long.MIN_VALUE + 1} rather than overflow into the sentinels.
+ */
+public interface LongSemiring {
+    long zero();
+
+    long one();
+
+    /**
+     * Combines the values of two alternative paths.
+     */
+    long plus(long a, long b);
+
+    /**
+     * Extends a path value by one edge of the given weight.
+     */
+    long times(long a, int weight);
+
+    /**
+     * {@code true} if {@link #plus} always returns one of its arguments, so every vertex has a
+     * best predecessor and paths can be reconstructed.
+     */
+    default boolean isSelective() {
+        return true;
+    }
+
+    String name();
+
+    /** Shortest paths: (min, +). */
+    LongSemiring MIN_PLUS = new MinPlus();
+
+    /** Longest paths: (max, +). */
+    LongSemiring MAX_PLUS = new MaxPlus();
+
+    /** Widest paths: (max, min), the largest edge weight every path edge can carry. */
+    LongSemiring BOTTLENECK = new Bottleneck();
+
+    /**
+     * Number of distinct paths modulo {@code p}; parallel edges count as different paths. A count
+     * that is a multiple of {@code p} is indistinguishable from "no path".
+     */
+    static LongSemiring countingModulo(long p) {
+        if (p < 2 || p > (1L << 62)) {
+            throw new IllegalArgumentException("Modulus must be in [2, 2^62]: " + p);
+        }
+        return new Counting(p);
+    }
+
+    /**
+     * {@code a + b} clamped to {@code [Long.MIN_VALUE + 1, Long.MAX_VALUE - 1]}.
+     */
+    static long saturatingAdd(long a, long b) {
+        long r = a + b;
+        if (((a ^ r) & (b ^ r)) < 0) {
+            return b > 0 ? Long.MAX_VALUE - 1 : Long.MIN_VALUE + 1;
+        }
+        if (r == Long.MAX_VALUE) {
+            return Long.MAX_VALUE - 1;
+        }
+        return r == Long.MIN_VALUE ? Long.MIN_VALUE + 1 : r;
+    }
+
+    final class MinPlus implements LongSemiring {
+        public long zero() {
+            return Long.MAX_VALUE;
+        }
+
+        public long one() {
+            return 0;
+        }
+
+        public long plus(long a, long b) {
+            return Math.min(a, b);
+        }
+
+        public long times(long a, int weight) {
+            return saturatingAdd(a, weight);
+        }
+
+        public String name() {
+            return "min-plus";
+        }
+    }
+
+    final class MaxPlus implements LongSemiring {
+        public long zero() {
+            return Long.MIN_VALUE;
+        }
+
+        public long one() {
+            return 0;
+        }
+
+        public long plus(long a, long b) {
+            return Math.max(a, b);
+        }
+
+        public long times(long a, int weight) {
+            return saturatingAdd(a, weight);
+        }
+
+        public String name() {
+            return "max-plus";
+        }
+    }
+
+    final class Bottleneck implements LongSemiring {
+        public long zero() {
+            return Long.MIN_VALUE;
+        }
+
+        public long one() {
+            return Long.MAX_VALUE;
+        }
+
+        public long plus(long a, long b) {
+            return Math.max(a, b);
+        }
+
+        public long times(long a, int weight) {
+            return Math.min(a, weight);
+        }
+
+        public String name() {
+            return "bottleneck";
+        }
+    }
+
+    final class Counting implements LongSemiring {
+        private final long modulus;
+
+        Counting(long modulus) {
+            this.modulus = modulus;
+        }
+
+        public long zero() {
+            return 0;
+        }
+
+        public long one() {
+            return 1;
+        }
+
+        public long plus(long a, long b) {
+            long r = a + b;
+            return r >= modulus ? r - modulus : r;
+        }
+
+        public long times(long a, int weight) {
+            return a;
+        }
+
+        public boolean isSelective() {
+            return false;
+        }
+
+        public String name() {
+            return "count-mod-" + modulus;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package graph.dagsp;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Batched shortest/longest path distances from many sources over one frozen DAG.
+ * The topological order and its inverse are computed once and shared; each source only scans
+ * the suffix of the order that starts at its own position. Sources are fanned out over a
+ * {@link ForkJoinPool}; streaming mode reuses one scratch row per worker for the duration of the
+ * call, so memory stays at O(V) per worker instead of O(sources * V) and is released on return.
+ */
+public class MultiSourceDAGPaths {
+    public static final int INF = Integer.MAX_VALUE / 2;
+
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final int[] topoOrder;
+    private final int[] position;
+    private final ForkJoinPool pool;
+
+    public MultiSourceDAGPaths(CsrGraph graph, Metrics metrics, List<Integer> topoOrder) {
+        this(graph, metrics, topoOrder.stream().mapToInt(Integer::intValue).toArray(), ForkJoinPool.commonPool());
+    }
+
+    public MultiSourceDAGPaths(CsrGraph graph, Metrics metrics, int[] topoOrder, ForkJoinPool pool) {
+        if (topoOrder.length != graph.getV()) {
+            throw new IllegalArgumentException("Topological order must cover all " + graph.getV() + " vertices");
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.topoOrder = topoOrder;
+        this.pool = pool;
+        this.position = new int[graph.getV()];
+        for (int k = 0; k < topoOrder.length; k++) {
+            position[topoOrder[k]] = k;
+        }
+    }
+
+    /**
+     * Receives one distance row per source. Rows are per-worker scratch buffers that are reused
+     * after the call returns, and calls may arrive concurrently from several workers.
+     */
+    public interface RowConsumer {
+        void accept(int sourceIndex, int source, int[] distances);
+    }
+
+    /**
+     * Dense {@code sources x V} distance matrix stored row-major in one int array.
+     * Unreachable entries hold {@link #INF} (shortest) or {@code -INF} (longest).
+     */
+    public static class DistanceMatrix {
+        private final int[] sources;
+        private final int columns;
+        private final int[] data;
+
+        DistanceMatrix(int[] sources, int columns) {
+            long size = (long) sources.length * columns;
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Distance matrix of " + size
+                        + " entries does not fit in memory; stream rows instead");
+            }
+            this.sources = sources;
+            this.columns = columns;
+            this.data = new int[(int) size];
+        }
+
+        public int rows() {
+            return sources.length;
+        }
+
+        public int columns() {
+            return columns;
+        }
+
+        public int source(int row) {
+            return sources[row];
+        }
+
+        public int get(int row, int v) {
+            return data[row * columns + v];
+        }
+
+        public IntBuffer row(int row) {
+            return IntBuffer.wrap(data, row * columns, columns).slice().asReadOnlyBuffer();
+        }
+    }
+
+    public DistanceMatrix shortestDistances(int[] sources) {
+        return computeMatrix(sources, false);
+    }
+
+    public DistanceMatrix longestDistances(int[] sources) {
+        return computeMatrix(sources, true);
+    }
+
+    public void forEachShortestRow(int[] sources, RowConsumer consumer) {
+        stream(sources, false, consumer);
+    }
+
+    public void forEachLongestRow(int[] sources, RowConsumer consumer) {
+        stream(sources, true, consumer);
+    }
+
+    private DistanceMatrix computeMatrix(int[] sources, boolean longest) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        int V = graph.getV();
+        DistanceMatrix matrix = new DistanceMatrix(sources.clone(), V);
+        runAll(sources.length, row -> relax(sources[row], matrix.data, row * V, longest));
+        metrics.stopPhase(timer);
+        return matrix;
+    }
+
+    private void stream(int[] sources, boolean longest, RowConsumer consumer) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        int V = graph.getV();
+        Map<Thread, int[]> scratch = new ConcurrentHashMap<>();
+        runAll(sources.length, row -> {
+            int[] dist = scratch.computeIfAbsent(Thread.currentThread(), t -> new int[V]);
+            relax(sources[row], dist, 0, longest);
+            consumer.accept(row, sources[row], dist);
+        });
+        metrics.stopPhase(timer);
+    }
+
+    private interface RowTask {
+        void run(int row);
+    }
+
+    private void runAll(int rows, RowTask task) {
+        pool.submit(() -> IntStream.range(0, rows).parallel().forEach(task::run)).join();
+    }
+
+    /**
+     * Single-source relaxation into {@code dist[base .. base + V)}. Vertices before the source in
+     * topological order are unreachable from it, so the scan starts at the source's position.
+     */
+    private void relax(int s, int[] dist, int base, boolean longest) {
+        int V = graph.getV();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int unreachable = longest ? -INF : INF;
+        long relaxed = 0;
+
+        Arrays.fill(dist, base, base + V, unreachable);
+        dist[base + s] = 0;
+        for (int k = position[s]; k < V; k++) {
+            int u = topoOrder[k];
+            int du = dist[base + u];
+            if (du == unreachable) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = base + targets[i];
+                int candidate = du + weights[i];
+                if (longest ? candidate > dist[v] : candidate < dist[v]) {
+                    dist[v] = candidate;
+                    relaxed++;
+                }
+            }
+        }
+        metrics.incrementRelaxations(relaxed);
+    }
+}
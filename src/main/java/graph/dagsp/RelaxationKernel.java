@@ -0,0 +1,47 @@
+package graph.dagsp;
+
+/**
+ * Relaxes the out-edges {@code [from, to)} of one vertex {@code u} whose distance is {@code du}.
+ * Improved targets get the new distance and {@code u} as predecessor; the return value is the
+ * number of improvements, counted exactly as the scalar loop in {@link DAGShortestPath} would.
+ * <p>
+ * {@link #best()} prefers the Vector API implementation from {@code src/main/vector}, which is only
+ * compiled with {@code mvn -Pvector} and only usable when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}; otherwise it falls back to {@link ScalarRelaxationKernel}.
+ */
+public interface RelaxationKernel {
+    String VECTOR_KERNEL_CLASS = "graph.dagsp.VectorRelaxationKernel";
+
+    int relaxMin(int u, int du, int from, int to, int[] targets, int[] weights, int[] dist, int[] predecessor);
+
+    int relaxMax(int u, int du, int from, int to, int[] targets, int[] weights, int[] dist, int[] predecessor);
+
+    String name();
+
+    static RelaxationKernel scalar() {
+        return ScalarRelaxationKernel.INSTANCE;
+    }
+
+    static RelaxationKernel best() {
+        return Holder.BEST;
+    }
+
+    final class Holder {
+        static final RelaxationKernel BEST = load();
+
+        private Holder() {
+        }
+
+        private static RelaxationKernel load() {
+            if (Boolean.getBoolean("graph.vector.disable")) {
+                return scalar();
+            }
+            try {
+                return (RelaxationKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+                // Not compiled with -Pvector, or the incubator module is not on the module graph.
+                return scalar();
+            }
+        }
+    }
+}
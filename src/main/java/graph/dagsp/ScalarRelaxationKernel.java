@@ -0,0 +1,43 @@
+package graph.dagsp;
+
+public final class ScalarRelaxationKernel implements RelaxationKernel {
+    static final ScalarRelaxationKernel INSTANCE = new ScalarRelaxationKernel();
+
+    private ScalarRelaxationKernel() {
+    }
+
+    @Override
+    public int relaxMin(int u, int du, int from, int to, int[] targets, int[] weights, int[] dist, int[] predecessor) {
+        int improved = 0;
+        for (int i = from; i < to; i++) {
+            int v = targets[i];
+            int candidate = du + weights[i];
+            if (dist[v] > candidate) {
+                dist[v] = candidate;
+                predecessor[v] = u;
+                improved++;
+            }
+        }
+        return improved;
+    }
+
+    @Override
+    public int relaxMax(int u, int du, int from, int to, int[] targets, int[] weights, int[] dist, int[] predecessor) {
+        int improved = 0;
+        for (int i = from; i < to; i++) {
+            int v = targets[i];
+            int candidate = du + weights[i];
+            if (dist[v] < candidate) {
+                dist[v] = candidate;
+                predecessor[v] = u;
+                improved++;
+            }
+        }
+        return improved;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
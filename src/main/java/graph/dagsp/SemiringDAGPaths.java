@@ -0,0 +1,366 @@
+package graph.dagsp;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.common.PathForest;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-source DAG relaxation over a pluggable semiring: one pass over the topological order
+ * computes shortest, longest, widest paths or path counts depending on the {@link LongSemiring}
+ * or {@link DoubleSemiring} passed in. Values are primitive {@code long}/{@code double} arrays;
+ * the built-in long semirings saturate, so large weights on long chains cannot wrap around.
+ * <p>
+ * For a selective semiring the predecessor on the winning path is recorded; ties keep the
+ * earlier predecessor in topological order, like {@link DAGShortestPath}.
+ */
+public class SemiringDAGPaths {
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final int[] topoOrder;
+
+    public SemiringDAGPaths(CsrGraph graph, Metrics metrics, List<Integer> topoOrder) {
+        this(graph, metrics, topoOrder.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public SemiringDAGPaths(CsrGraph graph, Metrics metrics, int[] topoOrder) {
+        if (topoOrder.length != graph.getV()) {
+            throw new IllegalArgumentException("Topological order must cover all " + graph.getV()
+                    + " vertices (is the graph acyclic?)");
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.topoOrder = topoOrder;
+    }
+
+    public LongPaths run(LongSemiring semiring, int source) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        int V = graph.getV();
+        long[] value = new long[V];
+        Arrays.fill(value, semiring.zero());
+        value[source] = semiring.one();
+        int[] predecessor = semiring.isSelective() ? newPredecessors(V) : null;
+
+        // The built-in semirings get their own loops so the call site stays monomorphic when
+        // several semirings run in one JVM; anything else goes through the interface.
+        long relaxed;
+        if (semiring instanceof LongSemiring.MinPlus) {
+            relaxed = relaxAdditive(value, predecessor, false);
+        } else if (semiring instanceof LongSemiring.MaxPlus) {
+            relaxed = relaxAdditive(value, predecessor, true);
+        } else if (semiring instanceof LongSemiring.Bottleneck) {
+            relaxed = relaxBottleneck(value, predecessor);
+        } else if (semiring instanceof LongSemiring.Counting) {
+            relaxed = relaxCounting((LongSemiring.Counting) semiring, value);
+        } else if (predecessor != null) {
+            relaxed = relaxSelective(semiring, value, predecessor);
+        } else {
+            relaxed = relaxAll(semiring, value);
+        }
+
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+        return new LongPaths(semiring, source, value, predecessor);
+    }
+
+    private static int[] newPredecessors(int V) {
+        int[] predecessor = new int[V];
+        Arrays.fill(predecessor, -1);
+        return predecessor;
+    }
+
+    /**
+     * (min, +) or (max, +) with saturating addition.
+     */
+    private long relaxAdditive(long[] value, int[] predecessor, boolean longest) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long zero = longest ? Long.MIN_VALUE : Long.MAX_VALUE;
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            long vu = value[u];
+            if (vu == zero) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                long candidate = LongSemiring.saturatingAdd(vu, weights[i]);
+                if (longest ? candidate > value[v] : candidate < value[v]) {
+                    value[v] = candidate;
+                    predecessor[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+        return relaxed;
+    }
+    private long relaxBottleneck(long[] value, int[] predecessor) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            long vu = value[u];
+            if (vu == Long.MIN_VALUE) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                long candidate = Math.min(vu, weights[i]);
+                if (candidate > value[v]) {
+                    value[v] = candidate;
+                    predecessor[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+        return relaxed;
+    }
+
+    private long relaxCounting(LongSemiring.Counting counting, long[] value) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            long vu = value[u];
+            if (vu == 0) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                value[v] = counting.plus(value[v], vu);
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        return relaxed;
+    }
+
+    private long relaxSelective(LongSemiring semiring, long[] value, int[] predecessor) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long zero = semiring.zero();
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            long vu = value[u];
+            if (vu == zero) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                long current = value[v];
+                long combined = semiring.plus(current, semiring.times(vu, weights[i]));
+                if (combined != current) {
+                    value[v] = combined;
+                    predecessor[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+        return relaxed;
+    }
+
+    private long relaxAll(LongSemiring semiring, long[] value) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long zero = semiring.zero();
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            long vu = value[u];
+            if (vu == zero) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                value[v] = semiring.plus(value[v], semiring.times(vu, weights[i]));
+            }
+            relaxed += offsets[u + 1] - offsets[u];
+        }
+        return relaxed;
+    }
+
+    public DoublePaths run(DoubleSemiring semiring, int source) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        int V = graph.getV();
+        double[] value = new double[V];
+        Arrays.fill(value, semiring.zero());
+        value[source] = semiring.one();
+        int[] predecessor = semiring.isSelective() ? newPredecessors(V) : null;
+
+        long relaxed;
+        if (semiring instanceof DoubleSemiring.MinPlus) {
+            relaxed = relaxAdditive(value, predecessor, false);
+        } else if (semiring instanceof DoubleSemiring.MaxPlus) {
+            relaxed = relaxAdditive(value, predecessor, true);
+        } else if (semiring instanceof DoubleSemiring.Bottleneck) {
+            relaxed = relaxBottleneck(value, predecessor);
+        } else {
+            relaxed = relax(semiring, value, predecessor);
+        }
+
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+        return new DoublePaths(semiring, source, value, predecessor);
+    }
+
+    private long relaxAdditive(double[] value, int[] predecessor, boolean longest) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        double zero = longest ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            double vu = value[u];
+            if (vu == zero) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                double candidate = vu + weights[i];
+                if (longest ? candidate > value[v] : candidate < value[v]) {
+                    value[v] = candidate;
+                    predecessor[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+        return relaxed;
+    }
+
+    private long relaxBottleneck(double[] value, int[] predecessor) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            double vu = value[u];
+            if (vu == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                double candidate = Math.min(vu, weights[i]);
+                if (candidate > value[v]) {
+                    value[v] = candidate;
+                    predecessor[v] = u;
+                    relaxed++;
+                }
+            }
+        }
+        return relaxed;
+    }
+
+    private long relax(DoubleSemiring semiring, double[] value, int[] predecessor) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        double zero = semiring.zero();
+        long relaxed = 0;
+        for (int u : topoOrder) {
+            double vu = value[u];
+            if (vu == zero) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                double current = value[v];
+                double combined = semiring.plus(current, semiring.times(vu, weights[i]));
+                if (combined != current) {
+                    value[v] = combined;
+                    if (predecessor != null) {
+                        predecessor[v] = u;
+                    }
+                    relaxed++;
+                }
+            }
+        }
+        return relaxed;
+    }
+
+    public static final class LongPaths {
+        private final LongSemiring semiring;
+        private final int source;
+        private final long[] value;
+        private final int[] predecessor;
+
+        LongPaths(LongSemiring semiring, int source, long[] value, int[] predecessor) {
+            this.semiring = semiring;
+            this.source = source;
+            this.value = value;
+            this.predecessor = predecessor;
+        }
+
+        public LongSemiring getSemiring() {
+            return semiring;
+        }
+
+        public long get(int v) {
+            return value[v];
+        }
+
+        public boolean isReachable(int v) {
+            return value[v] != semiring.zero();
+        }
+
+        /**
+         * Read-only view of all values.
+         */
+        public LongBuffer values() {
+            return LongBuffer.wrap(value).asReadOnlyBuffer();
+        }
+
+        /**
+         * Winning paths of a selective semiring; throws for counting semirings, which have none.
+         */
+        public PathForest pathForest() {
+            return SemiringDAGPaths.pathForest(semiring.name(), source, predecessor);
+        }
+    }
+
+    public static final class DoublePaths {
+        private final DoubleSemiring semiring;
+        private final int source;
+        private final double[] value;
+        private final int[] predecessor;
+
+        DoublePaths(DoubleSemiring semiring, int source, double[] value, int[] predecessor) {
+            this.semiring = semiring;
+            this.source = source;
+            this.value = value;
+            this.predecessor = predecessor;
+        }
+
+        public DoubleSemiring getSemiring() {
+            return semiring;
+        }
+
+        public double get(int v) {
+            return value[v];
+        }
+
+        public boolean isReachable(int v) {
+            return value[v] != semiring.zero();
+        }
+
+        public DoubleBuffer values() {
+            return DoubleBuffer.wrap(value).asReadOnlyBuffer();
+        }
+
+        public PathForest pathForest() {
+            return SemiringDAGPaths.pathForest(semiring.name(), source, predecessor);
+        }
+    }
+
+    private static PathForest pathForest(String semiring, int source, int[] predecessor) {
+        if (predecessor == null) {
+            throw new IllegalStateException(semiring + " is not selective, it has no single best path");
+        }
+        return new PathForest(source, predecessor);
+    }
+}
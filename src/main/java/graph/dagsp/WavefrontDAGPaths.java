@@ -0,0 +1,226 @@
+package graph.dagsp;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.common.PathForest;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous variant of {@link DAGShortestPath}. Vertices are grouped by level (longest
+ * edge count from any root); all in-edges of a level come from lower levels, so a level's vertices
+ * are independent and are relaxed in parallel by pulling over the reverse CSR. Each vertex only
+ * writes its own entries, so there is no write contention.
+ * <p>
+ * Results match the sequential pass exactly, predecessors included: among equally good
+ * in-neighbours the pull keeps the one earliest in {@code topoOrder}, which is the one the
+ * sequential push would have settled on. Levels narrower than {@code parallelThreshold} run
+ * inline, where forking would cost more than it saves.
+ */
+public class WavefrontDAGPaths {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private final int[] position;
+    private final int[] level;
+    private final int[] levelOffsets;
+    private final int[] levelVertices;
+    // In-edges pulled by each level, for the edge counter.
+    private final long[] levelEdges;
+    private final int[] dist;
+    private final int[] predecessor;
+    private int source = -1;
+
+    public WavefrontDAGPaths(CsrGraph graph, Metrics metrics, List<Integer> topoOrder) {
+        this(graph, metrics, topoOrder.stream().mapToInt(Integer::intValue).toArray(),
+                ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public WavefrontDAGPaths(CsrGraph graph, Metrics metrics, int[] topoOrder, ForkJoinPool pool,
+                             int parallelThreshold) {
+        int V = graph.getV();
+        if (topoOrder.length != V) {
+            throw new IllegalArgumentException("Topological order must cover all " + V
+                    + " vertices (is the graph acyclic?)");
+        }
+        this.graph = graph;
+        this.reverse = graph.reverse();
+        this.metrics = metrics;
+        this.pool = pool;
+        this.parallelThreshold = Math.max(parallelThreshold, 1);
+
+        position = new int[V];
+        level = new int[V];
+        int levels = 0;
+        for (int p = 0; p < V; p++) {
+            int u = topoOrder[p];
+            position[u] = p;
+            levels = Math.max(levels, level[u] + 1);
+            for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                int v = graph.target(i);
+                level[v] = Math.max(level[v], level[u] + 1);
+            }
+        }
+        // Group by level, keeping topological order inside each level.
+        levelOffsets = new int[levels + 1];
+        for (int v = 0; v < V; v++) {
+            levelOffsets[level[v] + 1]++;
+        }
+        for (int l = 0; l < levels; l++) {
+            levelOffsets[l + 1] += levelOffsets[l];
+        }
+        int[] cursor = Arrays.copyOf(levelOffsets, levels);
+        levelVertices = new int[V];
+        levelEdges = new long[levels];
+        for (int u : topoOrder) {
+            levelVertices[cursor[level[u]]++] = u;
+            levelEdges[level[u]] += reverse.outDegree(u);
+        }
+
+        dist = new int[V];
+        predecessor = new int[V];
+    }
+
+    public void findShortestPaths(int s) {
+        run(s, false);
+    }
+
+    public void findLongestPaths(int s) {
+        run(s, true);
+    }
+
+    private void run(int s, boolean longest) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        int unreached = longest ? -INF : INF;
+        Arrays.fill(dist, unreached);
+        Arrays.fill(predecessor, -1);
+        dist[s] = 0;
+        source = s;
+        long edges = 0;
+        long relaxed = 0;
+
+        for (int l = level[s] + 1; l + 1 < levelOffsets.length; l++) {
+            int from = levelOffsets[l];
+            int to = levelOffsets[l + 1];
+            if (to - from < parallelThreshold) {
+                for (int k = from; k < to; k++) {
+                    relaxed += pull(levelVertices[k], unreached, longest);
+                }
+            } else {
+                relaxed += pool.submit(() -> IntStream.range(from, to).parallel()
+                        .mapToLong(k -> pull(levelVertices[k], unreached, longest)).sum()).join();
+            }
+            edges += levelEdges[l];
+        }
+
+        metrics.incrementEdgesProcessed(edges);
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+    }
+
+    /**
+     * Settles {@code v} from its in-neighbours, which all sit on lower, already finished levels.
+     * @return the number of in-edges that improved the distance, the pull's relaxations
+     */
+    private int pull(int v, int unreached, boolean longest) {
+        int[] sources = reverse.getTargets();
+        int[] weights = reverse.getWeights();
+        int best = unreached;
+        int bestPred = -1;
+        int bestPosition = Integer.MAX_VALUE;
+        int improved = 0;
+        int from = reverse.edgeStart(v);
+        int to = reverse.edgeEnd(v);
+        for (int i = from; i < to; i++) {
+            int u = sources[i];
+            int du = dist[u];
+            if (du == unreached) {
+                continue;
+            }
+            int candidate = du + weights[i];
+            boolean better = longest ? candidate > best : candidate < best;
+            if (better) {
+                improved++;
+            }
+            if (better || (candidate == best && bestPred != -1 && position[u] < bestPosition)) {
+                best = candidate;
+                bestPred = u;
+                bestPosition = position[u];
+            }
+        }
+        dist[v] = best;
+        predecessor[v] = bestPred;
+        return improved;
+    }
+
+    public int getLevelCount() {
+        return levelOffsets.length - 1;
+    }
+
+    public int getMaxLevelWidth() {
+        int width = 0;
+        for (int l = 0; l + 1 < levelOffsets.length; l++) {
+            width = Math.max(width, levelOffsets[l + 1] - levelOffsets[l]);
+        }
+        return width;
+    }
+
+    public int getDistance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * Read-only view of the distances, valid until the next query on this instance.
+     */
+    public IntBuffer distances() {
+        return IntBuffer.wrap(dist).asReadOnlyBuffer();
+    }
+
+    public int[] getAllDistances() {
+        return dist.clone();
+    }
+
+    public List<Integer> reconstructPath(int target) {
+        if (dist[target] == INF || dist[target] == -INF) {
+            return Collections.emptyList();
+        }
+        LinkedList<Integer> path = new LinkedList<>();
+        for (int v = target; v != -1; v = predecessor[v]) {
+            path.addFirst(v);
+        }
+        return path;
+    }
+
+    /**
+     * Writes the path to {@code target} into {@code buffer} from index 0 without allocating.
+     * @return the number of vertices written, 0 if unreachable
+     */
+    public int reconstructPath(int target, int[] buffer) {
+        if (dist[target] == INF || dist[target] == -INF) {
+            return 0;
+        }
+        return PathForest.walkPredecessors(predecessor, target, buffer);
+    }
+
+    /**
+     * Paths to every vertex of the last run, sharing prefixes through the predecessor tree.
+     */
+    public PathForest pathForest() {
+        if (source < 0) {
+            throw new IllegalStateException("No run yet: call findShortestPaths or findLongestPaths first");
+        }
+        return new PathForest(source, predecessor.clone());
+    }
+}
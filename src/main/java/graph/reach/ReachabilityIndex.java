@@ -0,0 +1,313 @@
+package graph.reach;
+
+import graph.cache.GraphAnalysis;
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.topo.TopologicalSort;
+
+import java.util.Arrays;
+
+/**
+ * Answers "can u reach v" for vertices of the original graph using the condensation DAG: two
+ * vertices in one SCC always reach each other, otherwise the question is asked about components.
+ * <p>
+ * Small condensations (up to {@code bitsetLimit} components) get a full transitive closure with one
+ * bitset row per component, so a query is a single bit test. Larger ones get GRAIL labels: for
+ * {@code k} randomized DFS traversals every component stores an interval {@code [low, post]}, and
+ * {@code cu} can only reach {@code cv} if each interval of {@code cv} nests in the one of {@code cu}.
+ * Topological position and level give two more O(1) negative cuts, and the DFS tree of the first
+ * labeling gives an O(1) positive cut; only queries that pass all of them fall back to a DFS that is
+ * pruned by the same filters.
+ * <p>
+ * GRAIL's worst case is a large, dense condensation where most random pairs are reachable but not
+ * through the first DFS tree: such queries end up in the fallback search, and throughput drops from
+ * millions to tens of thousands of queries per second (about 17 µs per query on a 100k-vertex DAG
+ * with 8 edges per vertex, against about 20 ns for BITSET on the same graph). When the closure,
+ * {@code components² / 8} bytes, fits in memory, raise {@code bitsetLimit} for such graphs.
+ */
+public class ReachabilityIndex {
+    public static final int DEFAULT_BITSET_LIMIT = 8192;
+    public static final int DEFAULT_LABELS = 3;
+
+    public enum Mode {
+        BITSET, GRAIL
+    }
+
+    private final int[] sccId;
+    private final CsrGraph dag;
+    private final Mode mode;
+    private final long buildNanos;
+
+    // BITSET mode: closure[c * words .. (c + 1) * words) holds the components reachable from c.
+    private long[] closure;
+    private int words;
+
+    // GRAIL mode.
+    private int k;
+    private int[] labels;    // (low, post) pairs, k per component
+    private int[] position;  // index in topological order
+    private int[] level;     // longest path length from a source
+    private int[] treeStart; // first post rank in the DFS-tree subtree of the first labeling
+    private ThreadLocal<Scratch> scratch;
+
+    private static final class Scratch {
+        final int[] stamp;
+        final int[] stack;
+        int epoch;
+
+        Scratch(int n) {
+            stamp = new int[n];
+            stack = new int[n];
+        }
+    }
+
+    public ReachabilityIndex(GraphAnalysis analysis, Metrics metrics) {
+        this(analysis.getCondensation(), analysis.getSccId(), analysis.getTopoOrder(), metrics,
+                DEFAULT_BITSET_LIMIT, DEFAULT_LABELS, 1L);
+    }
+
+    public ReachabilityIndex(CsrGraph condensation, int[] sccId, Metrics metrics) {
+        this(condensation, sccId, null, metrics, DEFAULT_BITSET_LIMIT, DEFAULT_LABELS, 1L);
+    }
+
+    /**
+     * @param topoOrder topological order of the condensation, or {@code null} to compute it
+     * @param bitsetLimit largest component count that gets a full bitset closure
+     * @param labels number of GRAIL interval labels per component
+     */
+    public ReachabilityIndex(CsrGraph condensation, int[] sccId, int[] topoOrder, Metrics metrics,
+                             int bitsetLimit, int labels, long seed) {
+        long start = System.nanoTime();
+        this.sccId = sccId;
+        this.dag = condensation;
+        int n = condensation.getV();
+        if (topoOrder == null) {
+            topoOrder = new TopologicalSort(condensation, metrics).sortToArray();
+        }
+        if (topoOrder.length != n) {
+            throw new IllegalArgumentException("Condensation is not a DAG");
+        }
+
+        if (n <= bitsetLimit) {
+            mode = Mode.BITSET;
+            buildClosure(topoOrder);
+        } else {
+            mode = Mode.GRAIL;
+            buildGrail(topoOrder, Math.max(labels, 1), seed);
+        }
+        metrics.incrementEdgesProcessed((long) condensation.getE() * (mode == Mode.BITSET ? 1 : k + 1));
+        buildNanos = System.nanoTime() - start;
+    }
+
+    private void buildClosure(int[] topoOrder) {
+        int n = dag.getV();
+        words = (n + 63) >>> 6;
+        closure = new long[n * words];
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        for (int p = n - 1; p >= 0; p--) {
+            int c = topoOrder[p];
+            int row = c * words;
+            closure[row + (c >>> 6)] |= 1L << c;
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int succ = targets[i] * words;
+                for (int w = 0; w < words; w++) {
+                    closure[row + w] |= closure[succ + w];
+                }
+            }
+        }
+    }
+
+    private void buildGrail(int[] topoOrder, int labelCount, long seed) {
+        int n = dag.getV();
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        k = labelCount;
+        labels = new int[2 * k * n];
+        position = new int[n];
+        level = new int[n];
+        treeStart = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[topoOrder[p]] = p;
+        }
+        for (int p = 0; p < n; p++) {
+            int c = topoOrder[p];
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int t = targets[i];
+                level[t] = Math.max(level[t], level[c] + 1);
+            }
+        }
+
+        boolean[] hasPredecessor = new boolean[n];
+        for (int t : targets) {
+            hasPredecessor[t] = true;
+        }
+        int[] callStack = new int[n];
+        int[] cursor = new int[n];
+        int[] visited = new int[n];
+        for (int j = 0; j < k; j++) {
+            int stamp = j + 1;
+            int rank = 0;
+            int rootOffset = (int) Math.floorMod(mix(seed, j, -1), (long) Math.max(n, 1));
+            for (int r = 0; r < n; r++) {
+                int root = (r + rootOffset) % n;
+                if (hasPredecessor[root] || visited[root] == stamp) {
+                    continue;
+                }
+                // Iterative post-order DFS; each component scans its edges from a random rotation.
+                int depth = 0;
+                visited[root] = stamp;
+                if (j == 0) {
+                    treeStart[root] = rank + 1;
+                }
+                cursor[root] = 0;
+                callStack[depth++] = root;
+                setLow(root, j, Integer.MAX_VALUE);
+                while (depth > 0) {
+                    int c = callStack[depth - 1];
+                    int degree = offsets[c + 1] - offsets[c];
+                    if (cursor[c] < degree) {
+                        int rotation = degree == 0 ? 0 : (int) Math.floorMod(mix(seed, j, c), (long) degree);
+                        int t = targets[offsets[c] + (cursor[c] + rotation) % degree];
+                        cursor[c]++;
+                        if (visited[t] != stamp) {
+                            visited[t] = stamp;
+                            if (j == 0) {
+                                treeStart[t] = rank + 1;
+                            }
+                            cursor[t] = 0;
+                            setLow(t, j, Integer.MAX_VALUE);
+                            callStack[depth++] = t;
+                        } else {
+                            setLow(c, j, Math.min(low(c, j), low(t, j)));
+                        }
+                        continue;
+                    }
+                    depth--;
+                    int post = ++rank;
+                    setPost(c, j, post);
+                    setLow(c, j, Math.min(low(c, j), post));
+                    if (depth > 0) {
+                        int parent = callStack[depth - 1];
+                        setLow(parent, j, Math.min(low(parent, j), low(c, j)));
+                    }
+                }
+            }
+        }
+        scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+    }
+
+    private static long mix(long seed, int label, int vertex) {
+        long h = seed * 0x9E3779B97F4A7C15L + label * 0xC2B2AE3D27D4EB4FL + vertex;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private int low(int c, int j) {
+        return labels[2 * (c * k + j)];
+    }
+
+    private void setLow(int c, int j, int value) {
+        labels[2 * (c * k + j)] = value;
+    }
+
+    private void setPost(int c, int j, int value) {
+        labels[2 * (c * k + j) + 1] = value;
+    }
+
+    public boolean canReach(int u, int v) {
+        return canReachComponent(sccId[u], sccId[v]);
+    }
+
+    public boolean canReachComponent(int cu, int cv) {
+        if (cu == cv) {
+            return true;
+        }
+        if (mode == Mode.BITSET) {
+            return (closure[cu * words + (cv >>> 6)] & (1L << cv)) != 0;
+        }
+        if (!mayReach(cu, cv)) {
+            return false;
+        }
+        return treeDescendant(cu, cv) || search(cu, cv);
+    }
+
+    /**
+     * O(k) filter: false means definitely unreachable, true means "maybe".
+     */
+    private boolean mayReach(int cu, int cv) {
+        if (position[cu] >= position[cv] || level[cu] >= level[cv]) {
+            return false;
+        }
+        int bu = 2 * cu * k;
+        int bv = 2 * cv * k;
+        for (int j = 0; j < 2 * k; j += 2) {
+            if (labels[bv + j] < labels[bu + j] || labels[bv + j + 1] > labels[bu + j + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * O(1) positive cut: {@code cv} lies in the DFS-tree subtree of {@code cu} in the first labeling.
+     */
+    private boolean treeDescendant(int cu, int cv) {
+        int postV = labels[2 * cv * k + 1];
+        return treeStart[cu] <= postV && postV <= labels[2 * cu * k + 1];
+    }
+
+    private boolean search(int cu, int cv) {
+        Scratch s = scratch.get();
+        int epoch = ++s.epoch;
+        if (epoch == 0) {
+            Arrays.fill(s.stamp, 0);
+            epoch = s.epoch = 1;
+        }
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        int top = 0;
+        s.stack[top++] = cu;
+        s.stamp[cu] = epoch;
+        while (top > 0) {
+            int c = s.stack[--top];
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int t = targets[i];
+                if (t == cv || (s.stamp[t] != epoch && treeDescendant(t, cv))) {
+                    return true;
+                }
+                if (s.stamp[t] != epoch && mayReach(t, cv)) {
+                    s.stamp[t] = epoch;
+                    s.stack[top++] = t;
+                }
+            }
+        }
+        return false;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Heap bytes held by the index itself (the condensation and sccId are shared, not counted).
+     */
+    public long getIndexBytes() {
+        if (mode == Mode.BITSET) {
+            return 8L * closure.length;
+        }
+        return 4L * (labels.length + position.length + level.length + treeStart.length);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReachabilityIndex[mode=%s, components=%d, size=%d bytes, build=%.3f ms]",
+                mode, dag.getV(), getIndexBytes(), buildNanos / 1e6);
+    }
+}
@@ -0,0 +1,106 @@
+package graph.scc;
+
+import graph.common.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Builds the condensation DAG of a graph from an SCC assignment without per-edge allocation.
+ * Cross-SCC edges are bucketed by source component with a counting sort, then parallel edges
+ * between the same pair of components are merged in place using a per-target "last seen" stamp.
+ * Runs in O(V + E + numScc) time with int arrays only.
+ */
+public final class Condensation {
+    public enum Aggregation {
+        MAX, MIN, SUM
+    }
+
+    private Condensation() {
+    }
+
+    public static CsrGraph build(CsrGraph graph, int[] sccId, int numScc) {
+        return build(graph, sccId, numScc, Aggregation.MAX);
+    }
+
+    public static CsrGraph build(CsrGraph graph, int[] sccId, int numScc, Aggregation aggregation) {
+        int V = graph.getV();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+
+        // 1. Counting sort of cross-SCC edges by source component.
+        int[] bucket = new int[numScc + 1];
+        for (int u = 0; u < V; u++) {
+            int cu = sccId[u];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (sccId[targets[i]] != cu) {
+                    bucket[cu + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < numScc; c++) {
+            bucket[c + 1] += bucket[c];
+        }
+        int crossEdges = bucket[numScc];
+        int[] cTargets = new int[crossEdges];
+        int[] cWeights = new int[crossEdges];
+        int[] cursor = Arrays.copyOf(bucket, numScc);
+        for (int u = 0; u < V; u++) {
+            int cu = sccId[u];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int cv = sccId[targets[i]];
+                if (cv != cu) {
+                    int slot = cursor[cu]++;
+                    cTargets[slot] = cv;
+                    cWeights[slot] = weights[i];
+                }
+            }
+        }
+
+        // 2. Merge parallel edges per component pair, compacting in place (write index <= read index).
+        int[] lastSource = new int[numScc];
+        int[] position = new int[numScc];
+        Arrays.fill(lastSource, -1);
+        long[] sums = aggregation == Aggregation.SUM ? new long[crossEdges] : null;
+        int[] cOffsets = new int[numScc + 1];
+        int out = 0;
+        for (int cu = 0; cu < numScc; cu++) {
+            cOffsets[cu] = out;
+            for (int i = bucket[cu]; i < bucket[cu + 1]; i++) {
+                int cv = cTargets[i];
+                int w = cWeights[i];
+                if (lastSource[cv] != cu) {
+                    lastSource[cv] = cu;
+                    position[cv] = out;
+                    cTargets[out] = cv;
+                    cWeights[out] = w;
+                    if (sums != null) {
+                        sums[out] = w;
+                    }
+                    out++;
+                    continue;
+                }
+                int p = position[cv];
+                switch (aggregation) {
+                    case MAX:
+                        cWeights[p] = Math.max(cWeights[p], w);
+                        break;
+                    case MIN:
+                        cWeights[p] = Math.min(cWeights[p], w);
+                        break;
+                    case SUM:
+                        sums[p] += w;
+                        break;
+                }
+            }
+        }
+        cOffsets[numScc] = out;
+
+        if (sums != null) {
+            for (int i = 0; i < out; i++) {
+                cWeights[i] = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, sums[i]));
+            }
+        }
+        return CsrGraph.wrap(numScc, cOffsets, Arrays.copyOf(cTargets, out), Arrays.copyOf(cWeights, out));
+    }
+}
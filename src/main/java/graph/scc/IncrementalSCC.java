@@ -0,0 +1,672 @@
+package graph.scc;
+
+import graph.common.CsrGraph;
+import graph.common.LongIntHashMap;
+import graph.common.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Maintains SCC membership, the condensation DAG and a topological order of the components
+ * under a stream of edge insertions and deletions.
+ * <p>
+ * Insertions use the Pearce–Kelly online topological ordering algorithm on components: an edge
+ * that agrees with the current order costs O(1); otherwise only the components whose positions
+ * lie between its endpoints are searched and reordered. If the new edge closes a cycle, the
+ * components on it are merged (members of the smaller ones are relabelled into the largest).
+ * Deleting an edge between components never invalidates the order; deleting an edge inside a
+ * component re-runs Tarjan on that component only and, if it splits, renumbers the order in O(V).
+ * <p>
+ * Components are identified by a representative vertex. Membership, order and condensation
+ * edge queries are O(1); methods named {@code ...Snapshot} are O(V + E).
+ */
+public class IncrementalSCC {
+    private final int V;
+    private final Metrics metrics;
+
+    private final int[][] out;
+    private final int[][] outWeight;
+    private final int[] outSize;
+    private final int[][] in;
+    private final int[] inSize;
+    private long edgeCount;
+
+    // Components: representative per vertex, circular member lists, sizes.
+    private final int[] comp;
+    private final int[] nextMember;
+    private final int[] compSize;
+    private int componentCount;
+
+    // Topological order: ord[rep] is a slot, slot[pos] holds a representative or -1 for a hole.
+    private final int[] ord;
+    private final int[] slot;
+
+    // Condensation DAG as edge multiplicities keyed by (repU, repV).
+    private final LongIntHashMap crossEdges = new LongIntHashMap();
+
+    // Scratch for the bounded searches and local Tarjan runs.
+    private final int[] forwardStamp;
+    private final int[] backwardStamp;
+    private final int[] cycleStamp;
+    private int epoch;
+    private final int[] stack;
+    private final int[] localIndex;
+
+    public IncrementalSCC(int V, Metrics metrics) {
+        this.V = V;
+        this.metrics = metrics;
+        this.out = new int[V][];
+        this.outWeight = new int[V][];
+        this.outSize = new int[V];
+        this.in = new int[V][];
+        this.inSize = new int[V];
+        this.comp = new int[V];
+        this.nextMember = new int[V];
+        this.compSize = new int[V];
+        this.ord = new int[V];
+        this.slot = new int[V];
+        this.forwardStamp = new int[V];
+        this.backwardStamp = new int[V];
+        this.cycleStamp = new int[V];
+        this.stack = new int[V];
+        this.localIndex = new int[V];
+        for (int v = 0; v < V; v++) {
+            comp[v] = v;
+            nextMember[v] = v;
+            compSize[v] = 1;
+            ord[v] = v;
+            slot[v] = v;
+        }
+        this.componentCount = V;
+    }
+
+    /**
+     * Starts from an existing graph: components come from {@link TarjanSCC}, whose emission
+     * order is a reverse topological order of the condensation.
+     */
+    public IncrementalSCC(CsrGraph graph, Metrics metrics) {
+        this(graph.getV(), metrics);
+        for (int u = 0; u < V; u++) {
+            for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                appendEdge(u, graph.target(i), graph.weight(i));
+            }
+        }
+
+        TarjanSCC tarjan = new TarjanSCC(graph, new Metrics());
+        int numScc = tarjan.findPartition().count();
+        int[] sccId = tarjan.getSccId();
+        int[] repOf = new int[numScc];
+        Arrays.fill(repOf, -1);
+        Arrays.fill(slot, -1);
+        for (int v = 0; v < V; v++) {
+            int id = sccId[v];
+            int rep = repOf[id];
+            if (rep == -1) {
+                repOf[id] = v;
+                ord[v] = numScc - 1 - id;
+                slot[ord[v]] = v;
+            } else {
+                comp[v] = rep;
+                compSize[rep]++;
+                compSize[v] = 0;
+                nextMember[v] = nextMember[rep];
+                nextMember[rep] = v;
+            }
+        }
+        componentCount = numScc;
+        for (int u = 0; u < V; u++) {
+            for (int i = 0; i < outSize[u]; i++) {
+                int cu = comp[u];
+                int cv = comp[out[u][i]];
+                if (cu != cv) {
+                    crossEdges.addTo(LongIntHashMap.key(cu, cv), 1);
+                }
+            }
+        }
+    }
+
+    public int getV() {
+        return V;
+    }
+
+    public long getE() {
+        return edgeCount;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public int componentOf(int v) {
+        return comp[v];
+    }
+
+    public boolean sameComponent(int u, int v) {
+        return comp[u] == comp[v];
+    }
+
+    public int componentSize(int rep) {
+        return compSize[comp[rep]];
+    }
+
+    public int[] members(int rep) {
+        rep = comp[rep];
+        int[] result = new int[compSize[rep]];
+        int m = rep;
+        int k = 0;
+        do {
+            result[k++] = m;
+            m = nextMember[m];
+        } while (m != rep);
+        return result;
+    }
+
+    /**
+     * True if component of {@code u} comes strictly before the component of {@code v} in the
+     * maintained topological order.
+     */
+    public boolean precedes(int u, int v) {
+        return ord[comp[u]] < ord[comp[v]];
+    }
+
+    public int condensationEdgeMultiplicity(int u, int v) {
+        int count = crossEdges.get(LongIntHashMap.key(comp[u], comp[v]));
+        return count == LongIntHashMap.MISSING ? 0 : count;
+    }
+
+    public int condensationEdgeCount() {
+        return crossEdges.size();
+    }
+
+    /**
+     * Inserts edge {@code u -> v}. Returns true if the edge closed a cycle and merged components.
+     */
+    public boolean addEdge(int u, int v, int w) {
+        appendEdge(u, v, w);
+        int cu = comp[u];
+        int cv = comp[v];
+        if (cu == cv) {
+            return false;
+        }
+        crossEdges.addTo(LongIntHashMap.key(cu, cv), 1);
+        if (ord[cu] < ord[cv]) {
+            return false;
+        }
+
+        int lowerBound = ord[cv];
+        int upperBound = ord[cu];
+        int fEpoch = ++epoch;
+        int[] forward = new int[0];
+        int forwardCount = 0;
+        boolean cycle = false;
+        long edgesScanned = 0;
+
+        // Forward search from cv over components positioned at or before cu.
+        int top = 0;
+        stack[top++] = cv;
+        forwardStamp[cv] = fEpoch;
+        while (top > 0) {
+            int c = stack[--top];
+            if (forwardCount == forward.length) {
+                forward = Arrays.copyOf(forward, Math.max(8, forwardCount * 2));
+            }
+            forward[forwardCount++] = c;
+            if (c == cu) {
+                cycle = true;
+                continue;
+            }
+            int m = c;
+            do {
+                for (int i = 0; i < outSize[m]; i++) {
+                    int x = comp[out[m][i]];
+                    if (x != c && forwardStamp[x] != fEpoch && ord[x] <= upperBound) {
+                        forwardStamp[x] = fEpoch;
+                        stack[top++] = x;
+                    }
+                }
+                edgesScanned += outSize[m];
+                m = nextMember[m];
+            } while (m != c);
+        }
+
+        // Backward search from cu over components positioned at or after cv.
+        int bEpoch = fEpoch;
+        int[] backward = new int[0];
+        int backwardCount = 0;
+        top = 0;
+        stack[top++] = cu;
+        backwardStamp[cu] = bEpoch;
+        while (top > 0) {
+            int c = stack[--top];
+            if (backwardCount == backward.length) {
+                backward = Arrays.copyOf(backward, Math.max(8, backwardCount * 2));
+            }
+            backward[backwardCount++] = c;
+            if (c == cv) {
+                continue;
+            }
+            int m = c;
+            do {
+                for (int i = 0; i < inSize[m]; i++) {
+                    int x = comp[in[m][i]];
+                    if (x != c && backwardStamp[x] != bEpoch && ord[x] >= lowerBound) {
+                        backwardStamp[x] = bEpoch;
+                        stack[top++] = x;
+                    }
+                }
+                edgesScanned += inSize[m];
+                m = nextMember[m];
+            } while (m != c);
+        }
+        metrics.incrementDfsVisits(forwardCount + backwardCount);
+        metrics.incrementEdgesProcessed(edgesScanned);
+
+        int merged = -1;
+        if (cycle) {
+            // Components both reachable from cv and reaching cu lie on the new cycle.
+            int cEpoch = fEpoch;
+            int largest = -1;
+            for (int i = 0; i < forwardCount; i++) {
+                int c = forward[i];
+                if (backwardStamp[c] == bEpoch) {
+                    cycleStamp[c] = cEpoch;
+                    if (largest == -1 || compSize[c] > compSize[largest]) {
+                        largest = c;
+                    }
+                }
+            }
+            merged = largest;
+            // Rewrite all condensation keys first: they are expressed in pre-merge representatives.
+            for (int i = 0; i < forwardCount; i++) {
+                int c = forward[i];
+                if (cycleStamp[c] == cEpoch && c != merged) {
+                    rewriteCrossEdges(merged, c, cEpoch);
+                }
+            }
+            for (int i = 0; i < forwardCount; i++) {
+                int c = forward[i];
+                if (cycleStamp[c] == cEpoch && c != merged) {
+                    absorb(merged, c);
+                }
+            }
+        }
+
+        reorder(forward, forwardCount, backward, backwardCount, merged, fEpoch);
+        return cycle;
+    }
+
+    /**
+     * Removes one occurrence of edge {@code u -> v}. Returns false if there is no such edge.
+     */
+    public boolean removeEdge(int u, int v) {
+        int i = indexOf(out[u], outSize[u], v);
+        int j = indexOf(in[v], inSize[v], u);
+        if (i < 0 || j < 0) {
+            return false;
+        }
+        int lastOut = --outSize[u];
+        out[u][i] = out[u][lastOut];
+        outWeight[u][i] = outWeight[u][lastOut];
+        int lastIn = --inSize[v];
+        in[v][j] = in[v][lastIn];
+        edgeCount--;
+
+        int cu = comp[u];
+        int cv = comp[v];
+        if (cu != cv) {
+            decrementCross(cu, cv);
+        } else {
+            splitIfNeeded(cu);
+        }
+        return true;
+    }
+
+    /**
+     * Component representatives in topological order.
+     */
+    public int[] topologicalOrderSnapshot() {
+        int[] result = new int[componentCount];
+        int k = 0;
+        for (int pos = 0; pos < V; pos++) {
+            if (slot[pos] != -1) {
+                result[k++] = slot[pos];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Dense SCC ids numbered in topological order, compatible with {@link Condensation}.
+     */
+    public int[] sccIdSnapshot() {
+        int[] dense = new int[V];
+        int k = 0;
+        for (int pos = 0; pos < V; pos++) {
+            if (slot[pos] != -1) {
+                dense[slot[pos]] = k++;
+            }
+        }
+        int[] sccId = new int[V];
+        for (int v = 0; v < V; v++) {
+            sccId[v] = dense[comp[v]];
+        }
+        return sccId;
+    }
+
+    public CsrGraph toCsrSnapshot() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(V, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, edgeCount)));
+        for (int u = 0; u < V; u++) {
+            for (int i = 0; i < outSize[u]; i++) {
+                builder.addEdge(u, out[u][i], outWeight[u][i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Weighted condensation DAG whose vertex ids follow {@link #sccIdSnapshot()}, so the identity
+     * order 0..k-1 is a topological order.
+     */
+    public CsrGraph condensationSnapshot(Condensation.Aggregation aggregation) {
+        return Condensation.build(toCsrSnapshot(), sccIdSnapshot(), componentCount, aggregation);
+    }
+
+    private void appendEdge(int u, int v, int w) {
+        if (out[u] == null || outSize[u] == out[u].length) {
+            int capacity = out[u] == null ? 4 : outSize[u] * 2;
+            out[u] = out[u] == null ? new int[capacity] : Arrays.copyOf(out[u], capacity);
+            outWeight[u] = outWeight[u] == null ? new int[capacity] : Arrays.copyOf(outWeight[u], capacity);
+        }
+        out[u][outSize[u]] = v;
+        outWeight[u][outSize[u]++] = w;
+        if (in[v] == null || inSize[v] == in[v].length) {
+            in[v] = in[v] == null ? new int[4] : Arrays.copyOf(in[v], inSize[v] * 2);
+        }
+        in[v][inSize[v]++] = u;
+        edgeCount++;
+    }
+
+    private static int indexOf(int[] list, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (list[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void decrementCross(int cu, int cv) {
+        long key = LongIntHashMap.key(cu, cv);
+        if (crossEdges.addTo(key, -1) == 0) {
+            crossEdges.remove(key);
+        }
+    }
+
+    /**
+     * Re-keys the condensation edges of {@code source} onto {@code target}; edges between
+     * components of the collapsing cycle (marked with {@code cEpoch}) become internal and are dropped.
+     */
+    private void rewriteCrossEdges(int target, int source, int cEpoch) {
+        int m = source;
+        do {
+            for (int i = 0; i < outSize[m]; i++) {
+                int x = comp[out[m][i]];
+                if (x == source) {
+                    continue;
+                }
+                decrementCross(source, x);
+                if (cycleStamp[x] != cEpoch) {
+                    crossEdges.addTo(LongIntHashMap.key(target, x), 1);
+                }
+            }
+            for (int i = 0; i < inSize[m]; i++) {
+                int x = comp[in[m][i]];
+                if (x == source) {
+                    continue;
+                }
+                if (x == target) {
+                    decrementCross(target, source);
+                } else if (cycleStamp[x] != cEpoch) {
+                    decrementCross(x, source);
+                    crossEdges.addTo(LongIntHashMap.key(x, target), 1);
+                }
+            }
+            m = nextMember[m];
+        } while (m != source);
+    }
+
+    /**
+     * Moves every member of {@code source} into {@code target} and splices the member lists.
+     */
+    private void absorb(int target, int source) {
+        int m = source;
+        do {
+            comp[m] = target;
+            m = nextMember[m];
+        } while (m != source);
+        int splice = nextMember[target];
+        nextMember[target] = nextMember[source];
+        nextMember[source] = splice;
+        compSize[target] += compSize[source];
+        compSize[source] = 0;
+        componentCount--;
+    }
+
+    /**
+     * Pearce–Kelly reordering: backward-set components take the lowest freed slots, then the
+     * merged component (if any), then forward-set components take the highest slots; each set
+     * keeps its relative order. Slots left over after a merge become holes.
+     */
+    private void reorder(int[] forward, int forwardCount, int[] backward, int backwardCount,
+                         int merged, int stamp) {
+        int[] slots = new int[forwardCount + backwardCount];
+        int slotCount = 0;
+        for (int i = 0; i < backwardCount; i++) {
+            slots[slotCount++] = ord[backward[i]];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            int c = forward[i];
+            if (backwardStamp[c] != stamp) {
+                slots[slotCount++] = ord[c];
+            }
+        }
+        Arrays.sort(slots, 0, slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slot[slots[i]] = -1;
+        }
+
+        boolean hasMerge = merged != -1;
+        int[] before = onlyIn(backward, backwardCount, hasMerge ? cycleStamp : null, stamp);
+        int[] after = onlyIn(forward, forwardCount, hasMerge ? cycleStamp : backwardStamp, stamp);
+
+        int k = 0;
+        for (int c : before) {
+            place(c, slots[k++]);
+        }
+        if (hasMerge) {
+            place(merged, slots[k]);
+        }
+        int first = slotCount - after.length;
+        for (int i = 0; i < after.length; i++) {
+            place(after[i], slots[first + i]);
+        }
+    }
+
+    /**
+     * Components of {@code set} not stamped in {@code exclude}, sorted by their current slot.
+     */
+    private int[] onlyIn(int[] set, int count, int[] exclude, int stamp) {
+        int[] result = new int[count];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            int c = set[i];
+            if (exclude == null || exclude[c] != stamp) {
+                result[k++] = c;
+            }
+        }
+        result = Arrays.copyOf(result, k);
+        long[] keyed = new long[k];
+        for (int i = 0; i < k; i++) {
+            keyed[i] = ((long) ord[result[i]] << 32) | result[i];
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < k; i++) {
+            result[i] = (int) keyed[i];
+        }
+        return result;
+    }
+
+    private void place(int c, int position) {
+        ord[c] = position;
+        slot[position] = c;
+    }
+
+    private void splitIfNeeded(int c) {
+        int n = compSize[c];
+        if (n == 1) {
+            return;
+        }
+        int[] vertices = members(c);
+        for (int j = 0; j < n; j++) {
+            localIndex[vertices[j]] = j;
+        }
+
+        // Iterative Tarjan restricted to the component's members.
+        int[] disc = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        int[] callStack = new int[n];
+        int[] sccStack = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] part = new int[n];
+        int parts = 0;
+        int time = 0;
+        int sccTop = 0;
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            disc[root] = low[root] = ++time;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            callStack[depth++] = root;
+            while (depth > 0) {
+                int u = callStack[depth - 1];
+                int vu = vertices[u];
+                if (cursor[u] < outSize[vu]) {
+                    int w = out[vu][cursor[u]++];
+                    if (comp[w] != c) {
+                        continue;
+                    }
+                    int x = localIndex[w];
+                    if (disc[x] == 0) {
+                        disc[x] = low[x] = ++time;
+                        sccStack[sccTop++] = x;
+                        onStack[x] = true;
+                        callStack[depth++] = x;
+                    } else if (onStack[x]) {
+                        low[u] = Math.min(low[u], disc[x]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (low[u] == disc[u]) {
+                    int x;
+                    do {
+                        x = sccStack[--sccTop];
+                        onStack[x] = false;
+                        part[x] = parts;
+                    } while (x != u);
+                    parts++;
+                }
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        if (parts == 1) {
+            return;
+        }
+
+        // Drop condensation keys touching c before relabelling.
+        for (int vu : vertices) {
+            for (int i = 0; i < outSize[vu]; i++) {
+                int x = comp[out[vu][i]];
+                if (x != c) {
+                    decrementCross(c, x);
+                }
+            }
+            for (int i = 0; i < inSize[vu]; i++) {
+                int x = comp[in[vu][i]];
+                if (x != c) {
+                    decrementCross(x, c);
+                }
+            }
+        }
+
+        int[] partRep = new int[parts];
+        Arrays.fill(partRep, -1);
+        for (int j = 0; j < n; j++) {
+            int vj = vertices[j];
+            int p = part[j];
+            if (partRep[p] == -1) {
+                partRep[p] = vj;
+                nextMember[vj] = vj;
+                compSize[vj] = 0;
+            } else {
+                int rep = partRep[p];
+                nextMember[vj] = nextMember[rep];
+                nextMember[rep] = vj;
+            }
+            comp[vj] = partRep[p];
+            compSize[partRep[p]]++;
+        }
+        if (comp[c] != c) {
+            compSize[c] = 0;
+        }
+        componentCount += parts - 1;
+
+        for (int vu : vertices) {
+            int cu = comp[vu];
+            for (int i = 0; i < outSize[vu]; i++) {
+                int x = comp[out[vu][i]];
+                if (x != cu) {
+                    crossEdges.addTo(LongIntHashMap.key(cu, x), 1);
+                }
+            }
+            for (int i = 0; i < inSize[vu]; i++) {
+                int src = in[vu][i];
+                int x = comp[src];
+                if (x != cu && localIndexOf(src, vertices) < 0) {
+                    crossEdges.addTo(LongIntHashMap.key(x, cu), 1);
+                }
+            }
+        }
+
+        // Tarjan emits parts in reverse topological order; splice them in at c's position.
+        int position = ord[c];
+        int[] newSlot = new int[V];
+        int k = 0;
+        for (int pos = 0; pos < V; pos++) {
+            int rep = slot[pos];
+            if (pos == position) {
+                for (int p = parts - 1; p >= 0; p--) {
+                    newSlot[k] = partRep[p];
+                    ord[partRep[p]] = k++;
+                }
+            } else if (rep != -1) {
+                newSlot[k] = rep;
+                ord[rep] = k++;
+            }
+        }
+        Arrays.fill(newSlot, k, V, -1);
+        System.arraycopy(newSlot, 0, slot, 0, V);
+    }
+
+    private int localIndexOf(int vertex, int[] vertices) {
+        int j = localIndex[vertex];
+        return j < vertices.length && vertices[j] == vertex ? j : -1;
+    }
+}
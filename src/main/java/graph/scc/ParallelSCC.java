@@ -0,0 +1,392 @@
+package graph.scc;
+
+import graph.common.CsrGraph;
+import graph.common.Graph;
+import graph.common.Metrics;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel SCC decomposition using forward-backward (FW-BW) reachability with trimming,
+ * executed on a work-stealing {@link ForkJoinPool}. Subproblems at or below the cutoff
+ * are finished with a sequential Tarjan pass restricted to the subproblem.
+ * <p>
+ * Every subproblem owns a unique color and only writes the per-vertex arrays of its own vertices.
+ * Tasks do read {@code color[]} of neighbours owned by other tasks while those tasks recolor them:
+ * that race is benign, because a task only asks whether a neighbour has its own color {@code c},
+ * and no other task ever writes {@code c} (colors are fresh, and a vertex receives {@code c}
+ * before the task owning {@code c} is forked). A stale or new value from another task is never
+ * {@code c}, so the shared arrays need no synchronization.
+ * Component ids are canonicalized at the end (ordered by smallest member, members ascending),
+ * so the result does not depend on scheduling.
+ */
+public class ParallelSCC {
+    public static final int DEFAULT_CUTOFF = 4096;
+
+    private static final byte FW = 1;
+    private static final byte BW = 2;
+    private static final int DONE = -1;
+
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+    private final int cutoff;
+
+    private final int[] color;
+    private final byte[] mark;
+    private final int[] inDegree;
+    private final int[] outDegree;
+    private final int[] sccId;
+
+    private final AtomicInteger nextColor = new AtomicInteger();
+    private final AtomicInteger nextScc = new AtomicInteger();
+    private final LongAdder edgesProcessed = new LongAdder();
+
+    private SccPartition partition;
+    private List<List<Integer>> sccs;
+
+    public ParallelSCC(Graph graph, Metrics metrics) {
+        this(graph.toCsr(), metrics);
+    }
+
+    public ParallelSCC(CsrGraph graph, Metrics metrics) {
+        this(graph, metrics, ForkJoinPool.commonPool(), DEFAULT_CUTOFF);
+    }
+
+    public ParallelSCC(CsrGraph graph, Metrics metrics, ForkJoinPool pool, int cutoff) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.pool = pool;
+        this.cutoff = Math.max(cutoff, 1);
+        int V = graph.getV();
+        this.color = new int[V];
+        this.mark = new byte[V];
+        this.inDegree = new int[V];
+        this.outDegree = new int[V];
+        this.sccId = new int[V];
+        Arrays.fill(sccId, -1);
+    }
+
+    public List<List<Integer>> findSccs() {
+        if (sccs == null) {
+            sccs = findPartition().toLists();
+        }
+        return sccs;
+    }
+
+    /**
+     * Same components as {@link #findSccs()}, members ascending, without boxing.
+     */
+    public SccPartition findPartition() {
+        if (partition != null) {
+            return partition;
+        }
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.SCC);
+
+        int V = graph.getV();
+        int[] all = new int[V];
+        for (int v = 0; v < V; v++) {
+            all[v] = v;
+        }
+        int rootColor = nextColor.getAndIncrement();
+        if (V > 0) {
+            CsrGraph reverse = graph.reverse();
+            pool.invoke(new Decompose(reverse, all, rootColor));
+        }
+        partition = canonicalize();
+
+        metrics.incrementEdgesProcessed(edgesProcessed.sum());
+        metrics.stopPhase(timer);
+        return partition;
+    }
+
+    public Graph buildCondensationGraph() {
+        return buildCondensation().toGraph();
+    }
+
+    public CsrGraph buildCondensation() {
+        return buildCondensation(Condensation.Aggregation.MAX);
+    }
+
+    public CsrGraph buildCondensation(Condensation.Aggregation aggregation) {
+        int numScc = findPartition().count();
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.CONDENSATION);
+        CsrGraph condensation = Condensation.build(graph, sccId, numScc, aggregation);
+        metrics.stopPhase(timer);
+        return condensation;
+    }
+
+    public int[] getSccId() {
+        return sccId;
+    }
+
+    private SccPartition canonicalize() {
+        int V = graph.getV();
+        int count = nextScc.get();
+        int[] remap = new int[count];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        for (int v = 0; v < V; v++) {
+            int id = sccId[v];
+            if (remap[id] == -1) {
+                remap[id] = next++;
+            }
+            sccId[v] = remap[id];
+        }
+
+        return SccPartition.fromSccId(sccId, next);
+    }
+
+    private final class Decompose extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CsrGraph reverse;
+        private final int[] vertices;
+        private final int c;
+
+        Decompose(CsrGraph reverse, int[] vertices, int c) {
+            this.reverse = reverse;
+            this.vertices = vertices;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            int[] remaining = trim();
+            if (remaining.length == 0) {
+                return;
+            }
+            if (remaining.length <= cutoff) {
+                tarjan(remaining);
+                return;
+            }
+
+            int pivot = remaining[remaining.length / 2];
+            reach(graph, pivot, FW, remaining.length);
+            reach(reverse, pivot, BW, remaining.length);
+
+            int fwColor = nextColor.getAndIncrement();
+            int bwColor = nextColor.getAndIncrement();
+            int restColor = nextColor.getAndIncrement();
+            int pivotScc = nextScc.getAndIncrement();
+            int fwCount = 0;
+            int bwCount = 0;
+            int restCount = 0;
+
+            for (int v : remaining) {
+                int m = mark[v];
+                if (m == (FW | BW)) {
+                    color[v] = DONE;
+                    sccId[v] = pivotScc;
+                } else if (m == FW) {
+                    color[v] = fwColor;
+                    fwCount++;
+                } else if (m == BW) {
+                    color[v] = bwColor;
+                    bwCount++;
+                } else {
+                    color[v] = restColor;
+                    restCount++;
+                }
+                mark[v] = 0;
+            }
+
+            List<Decompose> subtasks = new ArrayList<>(3);
+            addSubtask(subtasks, remaining, fwColor, fwCount);
+            addSubtask(subtasks, remaining, bwColor, bwCount);
+            addSubtask(subtasks, remaining, restColor, restCount);
+            invokeAll(subtasks);
+        }
+
+        private void addSubtask(List<Decompose> subtasks, int[] remaining, int subColor, int count) {
+            if (count == 0) {
+                return;
+            }
+            int[] part = new int[count];
+            int k = 0;
+            for (int v : remaining) {
+                if (color[v] == subColor) {
+                    part[k++] = v;
+                }
+            }
+            subtasks.add(new Decompose(reverse, part, subColor));
+        }
+
+        private void reach(CsrGraph g, int pivot, byte bit, int capacity) {
+            int[] offsets = g.getOffsets();
+            int[] targets = g.getTargets();
+            int[] queue = new int[capacity];
+            int head = 0;
+            int tail = 0;
+            long edges = 0;
+
+            mark[pivot] |= bit;
+            queue[tail++] = pivot;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    if (color[v] == c && (mark[v] & bit) == 0) {
+                        mark[v] |= bit;
+                        queue[tail++] = v;
+                    }
+                }
+                edges += offsets[u + 1] - offsets[u];
+            }
+            edgesProcessed.add(edges);
+        }
+
+        /**
+         * Repeatedly removes vertices with no in- or out-edges inside the subproblem;
+         * each of them is a trivial SCC. Returns the vertices that survive.
+         */
+        private int[] trim() {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] rOffsets = reverse.getOffsets();
+            int[] rTargets = reverse.getTargets();
+
+            int[] queue = new int[vertices.length];
+            int tail = 0;
+            for (int v : vertices) {
+                int out = 0;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (color[targets[i]] == c) {
+                        out++;
+                    }
+                }
+                int in = 0;
+                for (int i = rOffsets[v]; i < rOffsets[v + 1]; i++) {
+                    if (color[rTargets[i]] == c) {
+                        in++;
+                    }
+                }
+                outDegree[v] = out;
+                inDegree[v] = in;
+            }
+            for (int v : vertices) {
+                if (outDegree[v] == 0 || inDegree[v] == 0) {
+                    color[v] = DONE;
+                    queue[tail++] = v;
+                }
+            }
+
+            int head = 0;
+            while (head < tail) {
+                int u = queue[head++];
+                sccId[u] = nextScc.getAndIncrement();
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    if (color[v] == c && --inDegree[v] == 0) {
+                        color[v] = DONE;
+                        queue[tail++] = v;
+                    }
+                }
+                for (int i = rOffsets[u]; i < rOffsets[u + 1]; i++) {
+                    int w = rTargets[i];
+                    if (color[w] == c && --outDegree[w] == 0) {
+                        color[w] = DONE;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+
+            if (tail == 0) {
+                return vertices;
+            }
+            int[] remaining = new int[vertices.length - tail];
+            int k = 0;
+            for (int v : vertices) {
+                if (color[v] == c) {
+                    remaining[k++] = v;
+                }
+            }
+            return remaining;
+        }
+
+        /**
+         * Sequential iterative Tarjan restricted to the vertices of this subproblem.
+         * Local indices are kept in {@code inDegree}, which trimming no longer needs.
+         */
+        private void tarjan(int[] remaining) {
+            int n = remaining.length;
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] localIndex = inDegree;
+            for (int j = 0; j < n; j++) {
+                localIndex[remaining[j]] = j;
+            }
+
+            int[] disc = new int[n];
+            int[] low = new int[n];
+            int[] cursor = new int[n];
+            int[] callStack = new int[n];
+            int[] stack = new int[n];
+            boolean[] onStack = new boolean[n];
+            int time = 0;
+            int stackTop = 0;
+            long edges = 0;
+
+            for (int root = 0; root < n; root++) {
+                if (disc[root] != 0) {
+                    continue;
+                }
+                int depth = 0;
+                disc[root] = low[root] = ++time;
+                cursor[root] = offsets[remaining[root]];
+                stack[stackTop++] = root;
+                onStack[root] = true;
+                callStack[depth++] = root;
+
+                while (depth > 0) {
+                    int u = callStack[depth - 1];
+                    int vu = remaining[u];
+                    int i = cursor[u];
+                    if (i < offsets[vu + 1]) {
+                        cursor[u] = i + 1;
+                        edges++;
+                        int w = targets[i];
+                        if (color[w] != c) {
+                            continue;
+                        }
+                        int v = localIndex[w];
+                        if (disc[v] == 0) {
+                            disc[v] = low[v] = ++time;
+                            cursor[v] = offsets[w];
+                            stack[stackTop++] = v;
+                            onStack[v] = true;
+                            callStack[depth++] = v;
+                        } else if (onStack[v]) {
+                            low[u] = Math.min(low[u], disc[v]);
+                        }
+                        continue;
+                    }
+
+                    depth--;
+                    if (low[u] == disc[u]) {
+                        int id = nextScc.getAndIncrement();
+                        int x;
+                        do {
+                            x = stack[--stackTop];
+                            onStack[x] = false;
+                            sccId[remaining[x]] = id;
+                        } while (x != u);
+                    }
+                    if (depth > 0) {
+                        int parent = callStack[depth - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                }
+            }
+
+            for (int v : remaining) {
+                color[v] = DONE;
+            }
+            edgesProcessed.add(edges);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package graph.scc;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Strongly connected components laid out CSR style: the members of component {@code c} are
+ * {@code members[offsets[c] .. offsets[c + 1])}. Two int arrays instead of one boxed list per
+ * component.
+ */
+public final class SccPartition {
+    private final int[] offsets;
+    private final int[] members;
+
+    public SccPartition(int[] offsets, int[] members) {
+        if (offsets.length == 0 || offsets[offsets.length - 1] != members.length) {
+            throw new IllegalArgumentException("Offsets do not cover " + members.length + " members");
+        }
+        this.offsets = offsets;
+        this.members = members;
+    }
+
+    /**
+     * Groups vertices by component id with a counting sort; members come out in increasing order.
+     */
+    public static SccPartition fromSccId(int[] sccId, int count) {
+        int[] offsets = new int[count + 1];
+        for (int id : sccId) {
+            offsets[id + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] cursor = Arrays.copyOf(offsets, count);
+        int[] members = new int[sccId.length];
+        for (int v = 0; v < sccId.length; v++) {
+            members[cursor[sccId[v]]++] = v;
+        }
+        return new SccPartition(offsets, members);
+    }
+
+    public int count() {
+        return offsets.length - 1;
+    }
+
+    public int size(int c) {
+        return offsets[c + 1] - offsets[c];
+    }
+
+    public int member(int c, int k) {
+        return members[offsets[c] + k];
+    }
+
+    /**
+     * Read-only view of one component's members, backed by the shared array.
+     */
+    public IntBuffer members(int c) {
+        return IntBuffer.wrap(members, offsets[c], size(c)).slice().asReadOnlyBuffer();
+    }
+
+    // Raw arrays for hot loops; callers must treat them as read-only.
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    public int[] getMembers() {
+        return members;
+    }
+
+    public List<List<Integer>> toLists() {
+        List<List<Integer>> result = new ArrayList<>(count());
+        for (int c = 0; c < count(); c++) {
+            List<Integer> scc = new ArrayList<>(size(c));
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                scc.add(members[i]);
+            }
+            result.add(scc);
+        }
+        return result;
+    }
+}
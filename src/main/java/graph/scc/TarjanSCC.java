@@ -1,117 +1,168 @@
 package graph.scc;
 
-import graph.common.Edge;
+import graph.common.CsrGraph;
 import graph.common.Graph;
 import graph.common.Metrics;
 
 import java.util.*;
 
 public class TarjanSCC {
-    private final Graph graph;
+    private final CsrGraph graph;
     private final Metrics metrics;
 
     private int time;
     private final int[] disc;
     private final int[] low;
     private final boolean[] onStack;
-    private final Stack<Integer> stack;
 
-    private final List<List<Integer>> sccs;
+    // Explicit DFS state: call frames, per-vertex edge cursor and the Tarjan SCC stack.
+    private final int[] callStack;
+    private final int[] edgeCursor;
+    private final int[] stack;
+    private int stackTop;
+
+    // Components in emission order, CSR style: members[memberOffsets[c] .. memberOffsets[c + 1]).
+    private final int[] members;
+    private int[] memberOffsets;
+    private int sccCount;
+    private List<List<Integer>> sccs;
     private final int[] sccId;
 
     public TarjanSCC(Graph graph, Metrics metrics) {
+        this(graph.toCsr(), metrics);
+    }
+
+    public TarjanSCC(CsrGraph graph, Metrics metrics) {
         this.graph = graph;
         this.metrics = metrics;
         int V = graph.getV();
         this.disc = new int[V];
         this.low = new int[V];
         this.onStack = new boolean[V];
-        this.stack = new Stack<>();
-        this.sccs = new ArrayList<>();
+        this.callStack = new int[V];
+        this.edgeCursor = new int[V];
+        this.stack = new int[V];
+        this.members = new int[V];
+        this.memberOffsets = new int[Math.min(V, 15) + 1];
         this.sccId = new int[V];
         Arrays.fill(disc, -1);
         Arrays.fill(sccId, -1);
     }
 
     public List<List<Integer>> findSccs() {
-        metrics.startTimer();
-
-        for (int v : graph.getVertices()) {
-            if (disc[v] == -1) {
-                dfs(v);
-            }
+        run();
+        if (sccs == null || sccs.size() != sccCount) {
+            sccs = getPartition().toLists();
         }
-
-        metrics.stopTimer();
         return sccs;
     }
 
-    private void dfs(int u) {
-        metrics.incrementDfsVisits();
+    /**
+     * Same components as {@link #findSccs()}, members in the same order, without boxing.
+     */
+    public SccPartition findPartition() {
+        run();
+        return getPartition();
+    }
 
-        disc[u] = low[u] = ++time;
-        stack.push(u);
-        onStack[u] = true;
+    private SccPartition getPartition() {
+        return new SccPartition(Arrays.copyOf(memberOffsets, sccCount + 1), members);
+    }
 
-        for (Edge edge : graph.getAdj(u)) {
-            metrics.incrementEdgesProcessed(1);
-            int v = edge.target;
+    private void run() {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.SCC);
+        int visitedBefore = time;
 
+        for (int v = 0; v < graph.getV(); v++) {
             if (disc[v] == -1) {
                 dfs(v);
-                low[u] = Math.min(low[u], low[v]);
-            } else if (onStack[v]) {
-                low[u] = Math.min(low[u], disc[v]);
             }
         }
 
-        if (low[u] == disc[u]) {
-            List<Integer> scc = new ArrayList<>();
-            int w;
-            int currentSccId = sccs.size();
-            do {
-                w = stack.pop();
-                onStack[w] = false;
-                scc.add(w);
-                sccId[w] = currentSccId; // Assign the new SCC ID
-            } while (w != u);
-            sccs.add(scc);
+        // The first call visits every vertex and scans each out-edge once; later calls scan nothing.
+        metrics.incrementDfsVisits(time - visitedBefore);
+        if (time != visitedBefore) {
+            metrics.incrementEdgesProcessed(graph.getE());
         }
+        metrics.stopPhase(timer);
     }
 
-    public Graph buildCondensationGraph() {
-        int numScc = sccs.size();
-        Graph condensationGraph = new Graph(numScc);
-
-        Map<String, Integer> maxEdgeWeight = new HashMap<>();
-
-        for (int u = 0; u < graph.getV(); u++) {
-            int sccUId = sccId[u];
-
-            for (Edge edge : graph.getAdj(u)) {
-                int v = edge.target;
-                int sccVId = sccId[v];
-
-                if (sccUId != sccVId) {
-                    String edgeKey = sccUId + "->" + sccVId;
-                    int currentMaxW = maxEdgeWeight.getOrDefault(edgeKey, Integer.MIN_VALUE);
-
-                    if (edge.weight > currentMaxW) {
-                        maxEdgeWeight.put(edgeKey, edge.weight);
-                    }
+    /**
+     * Iterative equivalent of the recursive Tarjan DFS: visits vertices, edges and emits SCCs
+     * in exactly the same order, but keeps its frames in int arrays instead of the Java stack.
+     */
+    private void dfs(int root) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        int depth = 0;
+        visit(root, offsets);
+        callStack[depth++] = root;
+
+        while (depth > 0) {
+            int u = callStack[depth - 1];
+            int i = edgeCursor[u];
+
+            if (i < offsets[u + 1]) {
+                edgeCursor[u] = i + 1;
+                int v = targets[i];
+
+                if (disc[v] == -1) {
+                    visit(v, offsets);
+                    callStack[depth++] = v;
+                } else if (onStack[v]) {
+                    low[u] = Math.min(low[u], disc[v]);
                 }
+                continue;
+            }
+
+            depth--;
+            if (low[u] == disc[u]) {
+                popScc(u);
+            }
+            if (depth > 0) {
+                int parent = callStack[depth - 1];
+                low[parent] = Math.min(low[parent], low[u]);
             }
         }
-        for (Map.Entry<String, Integer> entry : maxEdgeWeight.entrySet()) {
-            String[] parts = entry.getKey().split("->");
-            int sccUId = Integer.parseInt(parts[0]);
-            int sccVId = Integer.parseInt(parts[1]);
-            int maxW = entry.getValue();
+    }
 
-            condensationGraph.addSimpleEdge(sccUId, sccVId, maxW);
+    private void visit(int u, int[] offsets) {
+        disc[u] = low[u] = ++time;
+        edgeCursor[u] = offsets[u];
+        stack[stackTop++] = u;
+        onStack[u] = true;
+    }
+
+    private void popScc(int u) {
+        int w;
+        int currentSccId = sccCount;
+        int next = memberOffsets[sccCount];
+        do {
+            w = stack[--stackTop];
+            onStack[w] = false;
+            members[next++] = w;
+            sccId[w] = currentSccId; // Assign the new SCC ID
+        } while (w != u);
+        if (++sccCount == memberOffsets.length - 1) {
+            memberOffsets = Arrays.copyOf(memberOffsets, Math.min(2 * sccCount, members.length) + 1);
         }
+        memberOffsets[sccCount] = next;
+    }
+
+    public Graph buildCondensationGraph() {
+        return buildCondensation().toGraph();
+    }
+
+    public CsrGraph buildCondensation() {
+        return buildCondensation(Condensation.Aggregation.MAX);
+    }
 
-        return condensationGraph;
+    public CsrGraph buildCondensation(Condensation.Aggregation aggregation) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.CONDENSATION);
+        CsrGraph condensation = Condensation.build(graph, sccId, sccCount, aggregation);
+        metrics.stopPhase(timer);
+        return condensation;
     }
 
     public int[] getSccId() {
@@ -0,0 +1,97 @@
+package graph.sssp;
+
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.common.PathForest;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Plain single-source Dijkstra over the whole graph. Edge weights must be non-negative.
+ * Kept as the reference that {@link SccDijkstra} is checked and benchmarked against.
+ */
+public class Dijkstra {
+    public static final long INF = Long.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final long[] dist;
+    private final int[] predecessor;
+    private final IndexedMinHeap heap;
+
+    public Dijkstra(CsrGraph graph, Metrics metrics) {
+        for (int w : graph.getWeights()) {
+            if (w < 0) {
+                throw new IllegalArgumentException("Dijkstra needs non-negative weights, found " + w);
+            }
+        }
+        this.graph = graph;
+        this.metrics = metrics;
+        this.dist = new long[graph.getV()];
+        this.predecessor = new int[graph.getV()];
+        this.heap = new IndexedMinHeap(graph.getV());
+    }
+
+    public void findShortestPaths(int s) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        Arrays.fill(dist, INF);
+        Arrays.fill(predecessor, -1);
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long pushes = 1;
+        long pops = 0;
+        long relaxed = 0;
+
+        dist[s] = 0;
+        heap.insertOrDecrease(s, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            pops++;
+            long du = dist[u];
+            for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                int v = targets[i];
+                long candidate = du + weights[i];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    predecessor[v] = u;
+                    relaxed++;
+                    if (!heap.contains(v)) {
+                        pushes++;
+                    }
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+
+        metrics.incrementQueuePushes(pushes);
+        metrics.incrementQueuePops(pops);
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+    }
+
+    public long getDistance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * Read-only view of the distances, valid until the next query on this instance.
+     */
+    public LongBuffer distances() {
+        return LongBuffer.wrap(dist).asReadOnlyBuffer();
+    }
+
+    public long[] getAllDistances() {
+        return dist.clone();
+    }
+
+    public List<Integer> reconstructPath(int target) {
+        return dist[target] == INF ? Collections.emptyList() : PathForest.walkPredecessors(predecessor, target);
+    }
+
+    public int reconstructPath(int target, int[] buffer) {
+        return dist[target] == INF ? 0 : PathForest.walkPredecessors(predecessor, target, buffer);
+    }
+}
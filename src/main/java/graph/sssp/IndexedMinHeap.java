@@ -0,0 +1,126 @@
+package graph.sssp;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of vertex ids {@code 0..capacity-1} keyed by {@code long}, with O(log n)
+ * decrease-key through a position index. Everything lives in three primitive arrays that are
+ * allocated once; {@link #clear()} only touches the entries currently in the heap.
+ */
+public final class IndexedMinHeap {
+    private final int[] heap;
+    private final long[] keys;
+    private final int[] index; // heap slot of each item, -1 when absent
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new long[capacity];
+        index = new int[capacity];
+        Arrays.fill(index, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int item) {
+        return index[item] >= 0;
+    }
+
+    public long key(int item) {
+        return keys[item];
+    }
+
+    /**
+     * Inserts {@code item}, or lowers its key if it is already queued with a larger one.
+     * @return {@code true} if the heap changed
+     */
+    public boolean insertOrDecrease(int item, long key) {
+        int slot = index[item];
+        if (slot < 0) {
+            keys[item] = key;
+            heap[size] = item;
+            index[item] = size;
+            siftUp(size++);
+            return true;
+        }
+        if (key < keys[item]) {
+            keys[item] = key;
+            siftUp(slot);
+            return true;
+        }
+        return false;
+    }
+
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * Removes and returns the item with the smallest key; ties go to whichever reached the top first.
+     */
+    public int poll() {
+        int top = heap[0];
+        index[top] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            index[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            index[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int item = heap[slot];
+        long key = keys[item];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            int parentItem = heap[parent];
+            if (keys[parentItem] <= key) {
+                break;
+            }
+            heap[slot] = parentItem;
+            index[parentItem] = slot;
+            slot = parent;
+        }
+        heap[slot] = item;
+        index[item] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int item = heap[slot];
+        long key = keys[item];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int childItem = heap[child];
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[childItem]) {
+                child = right;
+                childItem = heap[right];
+            }
+            if (key <= keys[childItem]) {
+                break;
+            }
+            heap[slot] = childItem;
+            index[childItem] = slot;
+            slot = child;
+        }
+        heap[slot] = item;
+        index[item] = slot;
+    }
+}
@@ -0,0 +1,199 @@
+package graph.sssp;
+
+import graph.cache.GraphAnalysis;
+import graph.common.CsrGraph;
+import graph.common.Metrics;
+import graph.common.PathForest;
+import graph.scc.SccPartition;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vertex-level single-source shortest paths on the original graph, driven by the condensation.
+ * Components are finished one at a time in topological order: by the time a component is reached,
+ * every edge entering it has already been relaxed, so a Dijkstra run seeded with those entry
+ * distances and restricted to the component's own edges settles it. Singleton components skip the
+ * heap entirely and just relax their out-edges, which makes mostly-acyclic graphs cost close to a
+ * DAG pass.
+ * <p>
+ * Edges inside an SCC must be non-negative; edges between SCCs may have any weight.
+ */
+public class SccDijkstra {
+    public static final long INF = Long.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final Metrics metrics;
+    private final int[] sccId;
+    private final int[] componentOrder;
+    private final int[] componentPosition;
+    private final int[] memberOffsets;
+    private final int[] members;
+    private int source = -1;
+    private final long[] dist;
+    private final int[] predecessor;
+    private final boolean[] reached;
+    private final IndexedMinHeap heap;
+
+    public SccDijkstra(CsrGraph graph, Metrics metrics) {
+        this(graph, metrics, GraphAnalysis.compute(null, graph, metrics));
+    }
+
+    public SccDijkstra(CsrGraph graph, Metrics metrics, GraphAnalysis analysis) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.sccId = analysis.getSccId();
+        this.componentOrder = analysis.getTopoOrder();
+        int numScc = analysis.getSccCount();
+        int V = graph.getV();
+
+        componentPosition = new int[numScc];
+        for (int p = 0; p < numScc; p++) {
+            componentPosition[componentOrder[p]] = p;
+        }
+        SccPartition partition = analysis.partition();
+        memberOffsets = partition.getOffsets();
+        members = partition.getMembers();
+
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        for (int u = 0; u < V; u++) {
+            for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                if (weights[i] < 0 && sccId[targets[i]] == sccId[u]) {
+                    throw new IllegalArgumentException("Negative weight " + weights[i] + " on edge " + u
+                            + " -> " + targets[i] + " inside SCC " + sccId[u]);
+                }
+            }
+        }
+
+        dist = new long[V];
+        predecessor = new int[V];
+        reached = new boolean[numScc];
+        int largest = 0;
+        for (int c = 0; c < numScc; c++) {
+            largest = Math.max(largest, memberOffsets[c + 1] - memberOffsets[c]);
+        }
+        heap = new IndexedMinHeap(largest > 1 ? V : 0);
+    }
+
+    public void findShortestPaths(int s) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.PATHS);
+        Arrays.fill(dist, INF);
+        Arrays.fill(predecessor, -1);
+        Arrays.fill(reached, false);
+        source = s;
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        long pushes = 0;
+        long pops = 0;
+        long relaxed = 0;
+
+        dist[s] = 0;
+        reached[sccId[s]] = true;
+        for (int p = componentPosition[sccId[s]]; p < componentOrder.length; p++) {
+            int c = componentOrder[p];
+            if (!reached[c]) {
+                continue;
+            }
+            int from = memberOffsets[c];
+            int to = memberOffsets[c + 1];
+            if (to - from == 1) {
+                // Acyclic stretch: the single member is already final, relax as on a DAG.
+                int u = members[from];
+                long du = dist[u];
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = targets[i];
+                    long candidate = du + weights[i];
+                    if (candidate < dist[v]) {
+                        dist[v] = candidate;
+                        predecessor[v] = u;
+                        reached[sccId[v]] = true;
+                        relaxed++;
+                    }
+                }
+                continue;
+            }
+
+            for (int k = from; k < to; k++) {
+                int v = members[k];
+                if (dist[v] != INF) {
+                    heap.insertOrDecrease(v, dist[v]);
+                    pushes++;
+                }
+            }
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                pops++;
+                long du = dist[u];
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = targets[i];
+                    long candidate = du + weights[i];
+                    if (candidate < dist[v]) {
+                        dist[v] = candidate;
+                        predecessor[v] = u;
+                        relaxed++;
+                        if (sccId[v] == c) {
+                            if (!heap.contains(v)) {
+                                pushes++;
+                            }
+                            heap.insertOrDecrease(v, candidate);
+                        } else {
+                            reached[sccId[v]] = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        metrics.incrementQueuePushes(pushes);
+        metrics.incrementQueuePops(pops);
+        metrics.incrementRelaxations(relaxed);
+        metrics.stopPhase(timer);
+    }
+
+    public long getDistance(int v) {
+        return dist[v];
+    }
+
+    /**
+     * Read-only view of the distances, valid until the next query on this instance.
+     */
+    public LongBuffer distances() {
+        return LongBuffer.wrap(dist).asReadOnlyBuffer();
+    }
+
+    public long[] getAllDistances() {
+        return dist.clone();
+    }
+
+    public int[] getSccId() {
+        return sccId;
+    }
+
+    /**
+     * Vertex-level path from the last source to {@code target}, or an empty list if unreachable.
+     */
+    public List<Integer> reconstructPath(int target) {
+        return dist[target] == INF ? Collections.emptyList() : PathForest.walkPredecessors(predecessor, target);
+    }
+
+    /**
+     * Writes the path to {@code target} into {@code buffer} from index 0 without allocating.
+     * @return the number of vertices written, 0 if unreachable
+     */
+    public int reconstructPath(int target, int[] buffer) {
+        return dist[target] == INF ? 0 : PathForest.walkPredecessors(predecessor, target, buffer);
+    }
+
+    /**
+     * Paths to every vertex from the last source, sharing prefixes through the predecessor tree.
+     */
+    public PathForest pathForest() {
+        if (source < 0) {
+            throw new IllegalStateException("Call findShortestPaths first");
+        }
+        return new PathForest(source, predecessor.clone());
+    }
+}
@@ -1,27 +1,30 @@
 package graph.topo;
 
-import graph.common.Edge;
+import graph.common.CsrGraph;
 import graph.common.Graph;
 import graph.common.Metrics;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 public class TopologicalSort {
-    private final Graph graph;
+    // Фронты меньше этого размера обрабатываются последовательно: накладные расходы пула больше выигрыша.
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    private final CsrGraph graph;
     private final Metrics metrics;
-    private final int[] inDegree;
+    private int[] levels;
 
     public TopologicalSort(Graph graph, Metrics metrics) {
+        this(graph.toCsr(), metrics);
+    }
+
+    public TopologicalSort(CsrGraph graph, Metrics metrics) {
         this.graph = graph;
         this.metrics = metrics;
-        this.inDegree = new int[graph.getV()];
-
-        // 1. Предварительный расчет in-degree для всех вершин
-        for (int u : graph.getVertices()) {
-            for (Edge edge : graph.getAdj(u)) {
-                inDegree[edge.target]++;
-            }
-        }
     }
 
     /**
@@ -29,48 +32,159 @@ public class TopologicalSort {
      * @return Список вершин в топологическом порядке. Пустой список, если цикл.
      */
     public List<Integer> sort() {
-        metrics.startTimer();
-        List<Integer> topOrder = new ArrayList<>();
-        Queue<Integer> queue = new LinkedList<>();
+        int[] order = sortToArray();
+        List<Integer> topOrder = new ArrayList<>(order.length);
+        for (int v : order) {
+            topOrder.add(v);
+        }
+        return topOrder;
+    }
+
+    /**
+     * Последовательный алгоритм Кана на массиве-очереди без упаковки (boxing).
+     * Заодно вычисляет уровень (глубину) каждой вершины, см. {@link #getLevels()}.
+     * @return Вершины в топологическом порядке. Пустой массив, если цикл.
+     */
+    public int[] sortToArray() {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.TOPO_SORT);
+        int V = graph.getV();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        // 1. Расчет in-degree для всех вершин
+        int[] inDegree = new int[V];
+        for (int target : targets) {
+            inDegree[target]++;
+        }
+
+        // Каждая вершина попадает в очередь ровно один раз, поэтому очередь - это сам массив результата.
+        int[] queue = new int[V];
+        int[] level = new int[V];
+        int head = 0;
+        int tail = 0;
+        long edges = 0;
 
         // 2. Инициализация очереди: добавление всех вершин с in-degree = 0
-        for (int v = 0; v < graph.getV(); v++) {
+        for (int v = 0; v < V; v++) {
             if (inDegree[v] == 0) {
-                queue.add(v);
-                metrics.incrementQueuePushes();
+                queue[tail++] = v;
             }
         }
 
-        while (!queue.isEmpty()) {
+        while (head < tail) {
             // 3. Извлечение вершины
-            int u = queue.poll();
-            metrics.incrementQueuePops();
-            topOrder.add(u);
+            int u = queue[head++];
 
             // 4. Уменьшение in-degree смежных вершин
-            for (Edge edge : graph.getAdj(u)) {
-                metrics.incrementEdgesProcessed(1);
-                int v = edge.target;
-                inDegree[v]--;
+            edges += offsets[u + 1] - offsets[u];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                level[v] = Math.max(level[v], level[u] + 1);
 
                 // 5. Если in-degree стало 0, добавляем вершину в очередь
-                if (inDegree[v] == 0) {
-                    queue.add(v);
-                    metrics.incrementQueuePushes();
+                if (--inDegree[v] == 0) {
+                    queue[tail++] = v;
                 }
             }
         }
+        metrics.incrementQueuePushes(tail);
+        metrics.incrementQueuePops(head);
+        metrics.incrementEdgesProcessed(edges);
+
+        metrics.stopPhase(timer);
+        return finish(queue, tail, level);
+    }
+
+    public int[] sortParallel() {
+        return sortParallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Параллельный уровневый (level-synchronous) алгоритм Кана: in-degree считается атомарными
+     * счетчиками, а каждый фронт вершин с нулевым in-degree обрабатывается как параллельный пакет.
+     * Внутри уровня вершины упорядочены по номеру, поэтому результат детерминирован.
+     * @return Вершины в топологическом порядке, сгруппированные по уровням. Пустой массив, если цикл.
+     */
+    public int[] sortParallel(ForkJoinPool pool) {
+        Metrics.PhaseTimer timer = metrics.startPhase(Metrics.Phase.TOPO_SORT);
+        int V = graph.getV();
+        int E = graph.getE();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(V);
+        runRange(pool, 0, E, i -> inDegree.getAndIncrement(targets[i]));
+
+        int[] order = new int[V];
+        int[] level = new int[V];
+        int[] roots = pool.submit(() -> IntStream.range(0, V).parallel()
+                .filter(v -> inDegree.get(v) == 0)
+                .toArray()).join();
+        System.arraycopy(roots, 0, order, 0, roots.length);
+
+        int start = 0;
+        int end = roots.length;
+        int depth = 0;
+        AtomicInteger tail = new AtomicInteger(end);
+        while (start < end) {
+            int nextLevel = ++depth;
+            runRange(pool, start, end, k -> {
+                int u = order[k];
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    if (inDegree.decrementAndGet(v) == 0) {
+                        level[v] = nextLevel;
+                        order[tail.getAndIncrement()] = v;
+                    }
+                }
+            });
+            int next = tail.get();
+            // Сортировка внутри pool: иначе Arrays.parallelSort разбивает работу в общем пуле.
+            int from = end;
+            pool.submit(() -> Arrays.parallelSort(order, from, next)).join();
+            start = end;
+            end = next;
+        }
+        metrics.incrementQueuePushes(end);
+        metrics.incrementQueuePops(end);
+        metrics.incrementEdgesProcessed(E);
 
-        metrics.stopTimer();
+        metrics.stopPhase(timer);
+        return finish(order, end, level);
+    }
 
+    /**
+     * Уровень вершины - длина самого длинного пути (в ребрах) от вершины с in-degree = 0.
+     * Вершины одного уровня независимы друг от друга. Доступно после успешной сортировки.
+     */
+    public int[] getLevels() {
+        return levels;
+    }
+
+    private int[] finish(int[] order, int count, int[] level) {
         // Проверка на цикл: если количество отсортированных вершин меньше общего числа вершин, значит есть цикл
-        if (topOrder.size() != graph.getV()) {
+        if (count != graph.getV()) {
             // В контексте SCC, это означает ошибку в построении конденсационного графа,
             // т.к. конденсационный граф должен быть DAG.
             System.err.println("Cycle detected in the graph! Topological sort is not possible.");
-            return Collections.emptyList();
+            levels = null;
+            return new int[0];
         }
+        levels = level;
+        return order;
+    }
 
-        return topOrder;
+    private interface IndexAction {
+        void run(int index);
+    }
+
+    private static void runRange(ForkJoinPool pool, int from, int to, IndexAction action) {
+        if (to - from < PARALLEL_THRESHOLD) {
+            for (int i = from; i < to; i++) {
+                action.run(i);
+            }
+            return;
+        }
+        pool.submit(() -> IntStream.range(from, to).parallel().forEach(action::run)).join();
     }
-}
\ No newline at end of file
+}
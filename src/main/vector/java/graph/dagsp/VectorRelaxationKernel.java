@@ -0,0 +1,92 @@
+package graph.dagsp;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API relaxation: for each block of lanes it loads targets and weights, gathers the current
+ * target distances, adds {@code du} and compares in one go. Only lanes whose mask bit is set are
+ * written back, one by one and re-checked against {@code dist}, so duplicate targets inside a block
+ * (parallel edges) resolve exactly like the scalar loop. After the first few sources most lanes do
+ * not improve, which is where the branch-free compare pays off.
+ * <p>
+ * Compiled only with {@code mvn -Pvector}; loaded reflectively by {@link RelaxationKernel#best()}.
+ */
+public final class VectorRelaxationKernel implements RelaxationKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int relaxMin(int u, int du, int from, int to, int[] targets, int[] weights, int[] dist, int[] predecessor) {
+        int improved = 0;
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector candidate = IntVector.fromArray(SPECIES, weights, i).add(du);
+            IntVector current = IntVector.fromArray(SPECIES, dist, 0, targets, i);
+            VectorMask<Integer> better = candidate.compare(VectorOperators.LT, current);
+            if (better.anyTrue()) {
+                improved += writeBack(u, du, i, better, targets, weights, dist, predecessor, false);
+            }
+        }
+        for (; i < to; i++) {
+            int v = targets[i];
+            int c = du + weights[i];
+            if (dist[v] > c) {
+                dist[v] = c;
+                predecessor[v] = u;
+                improved++;
+            }
+        }
+        return improved;
+    }
+
+    @Override
+    public int relaxMax(int u, int du, int from, int to, int[] targets, int[] weights, int[] dist, int[] predecessor) {
+        int improved = 0;
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector candidate = IntVector.fromArray(SPECIES, weights, i).add(du);
+            IntVector current = IntVector.fromArray(SPECIES, dist, 0, targets, i);
+            VectorMask<Integer> better = candidate.compare(VectorOperators.GT, current);
+            if (better.anyTrue()) {
+                improved += writeBack(u, du, i, better, targets, weights, dist, predecessor, true);
+            }
+        }
+        for (; i < to; i++) {
+            int v = targets[i];
+            int c = du + weights[i];
+            if (dist[v] < c) {
+                dist[v] = c;
+                predecessor[v] = u;
+                improved++;
+            }
+        }
+        return improved;
+    }
+
+    private static int writeBack(int u, int du, int base, VectorMask<Integer> better,
+                                 int[] targets, int[] weights, int[] dist, int[] predecessor, boolean longest) {
+        int improved = 0;
+        long bits = better.toLong();
+        while (bits != 0) {
+            int lane = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            int v = targets[base + lane];
+            int c = du + weights[base + lane];
+            if (longest ? c > dist[v] : c < dist[v]) {
+                dist[v] = c;
+                predecessor[v] = u;
+                improved++;
+            }
+        }
+        return improved;
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+}
@@ -1,14 +1,50 @@
 package graph;
 
+import graph.cache.AnalysisCache;
+import graph.cache.GraphAnalysis;
 import graph.common.*;
+import graph.scc.Condensation;
+import graph.scc.IncrementalSCC;
+import graph.scc.ParallelSCC;
+import graph.scc.SccPartition;
 import graph.scc.TarjanSCC;
 import graph.topo.TopologicalSort;
+import graph.dagsp.CriticalPathAnalysis;
 import graph.dagsp.DAGShortestPath;
+import graph.dagsp.MultiSourceDAGPaths;
+import graph.dagsp.DoubleSemiring;
+import graph.dagsp.KBestPaths;
+import graph.dagsp.LongSemiring;
+import graph.dagsp.RelaxationKernel;
+import graph.dagsp.SemiringDAGPaths;
+import graph.dagsp.WavefrontDAGPaths;
+import graph.reach.ReachabilityIndex;
+import graph.sssp.Dijkstra;
+import graph.sssp.SccDijkstra;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 public class GraphAlgorithmsTest {
     @Test
@@ -77,4 +113,906 @@ public class GraphAlgorithmsTest {
         assertEquals(6, longestPath.getDistance(target), "Longest path to 3 should be 6.");
         assertEquals(List.of(0, 2, 3), longestPath.reconstructPath(target), "Longest path should be 0->2->3");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCsrGraph_MatchesGraphAndReverse() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 2, 7);
+        graph.addEdge(0, 1, 3);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(2, 3, 5);
+
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        assertEquals(4, csr.getV());
+        assertEquals(4, csr.getE());
+        assertEquals(2, csr.outDegree(0));
+        assertEquals(2, csr.target(csr.edgeStart(0)), "Insertion order should be preserved");
+        assertEquals(7, csr.weight(csr.edgeStart(0)));
+
+        CsrGraph reverse = csr.reverse();
+        assertSame(reverse, csr.reverse(), "Reverse CSR should be built once");
+        assertEquals(2, reverse.outDegree(3));
+        assertEquals(1, reverse.target(reverse.edgeStart(3)));
+        assertEquals(2, reverse.weight(reverse.edgeStart(3)));
+
+        CsrGraph built = new CsrGraph.Builder(4)
+                .addEdge(1, 3, 2).addEdge(0, 2, 7).addEdge(2, 3, 5).addEdge(0, 1, 3)
+                .build();
+        assertArrayEquals(csr.getOffsets(), built.getOffsets());
+        assertArrayEquals(csr.getTargets(), built.getTargets());
+        assertArrayEquals(csr.getWeights(), built.getWeights());
+    }
+
+    @Test
+    void testTarjanSCC_DeepChainDoesNotOverflow() {
+        int n = 500_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, n);
+        for (int i = 0; i + 1 < n; i++) {
+            builder.addEdge(i, i + 1, 1);
+        }
+        builder.addEdge(n - 1, n / 2, 1);
+
+        TarjanSCC tarjan = new TarjanSCC(builder.build(), new Metrics());
+        List<List<Integer>> sccs = tarjan.findSccs();
+
+        assertEquals(n / 2 + 1, sccs.size(), "Tail cycle plus one SCC per prefix vertex");
+        assertEquals(n - n / 2, sccs.get(0).size(), "Sink cycle is emitted first");
+        assertEquals(tarjan.getSccId()[n / 2], tarjan.getSccId()[n - 1]);
+        assertEquals(sccs.size() - 1, tarjan.getSccId()[0]);
+    }
+
+    @Test
+    void testParallelSCC_MatchesTarjanPartition() {
+        int n = 3000;
+        Random random = new Random(42);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n);
+        for (int i = 0; i < 4000; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(10));
+        }
+        CsrGraph graph = builder.build();
+
+        TarjanSCC tarjan = new TarjanSCC(graph, new Metrics());
+        List<List<Integer>> expected = tarjan.findSccs();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelSCC parallel = new ParallelSCC(graph, new Metrics(), pool, 16);
+            List<List<Integer>> actual = parallel.findSccs();
+
+            assertEquals(expected.size(), actual.size(), "Same number of SCCs");
+            int[] tarjanId = tarjan.getSccId();
+            int[] parallelId = parallel.getSccId();
+            int[] mapping = new int[expected.size()];
+            Arrays.fill(mapping, -1);
+            for (int v = 0; v < n; v++) {
+                if (mapping[tarjanId[v]] == -1) {
+                    mapping[tarjanId[v]] = parallelId[v];
+                }
+                assertEquals(mapping[tarjanId[v]], parallelId[v], "Vertex " + v + " is in a different SCC");
+            }
+            assertEquals(expected.size(), parallel.buildCondensationGraph().getV());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDataLoader_StreamsEdgesBeforeN(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("graph.json");
+        Files.writeString(file, "{\"edges\": [{\"u\": 0, \"v\": 2, \"w\": 4}, {\"v\": 1, \"u\": 2}],"
+                + " \"extra\": {\"ignored\": [1, 2]}, \"source\": 2, \"weight_model\": \"edge\", \"n\": 3}");
+
+        DataLoader.GraphFile loaded = DataLoader.readGraph(file.toString());
+        CsrGraph graph = loaded.graph;
+        assertEquals(3, graph.getV());
+        assertEquals(2, graph.getE());
+        assertEquals(2, loaded.source);
+        assertEquals("edge", loaded.weightModel);
+        assertEquals(2, graph.target(graph.edgeStart(0)));
+        assertEquals(4, graph.weight(graph.edgeStart(0)));
+        assertEquals(1, graph.target(graph.edgeStart(2)));
+        assertEquals(1, graph.weight(graph.edgeStart(2)), "Missing weight defaults to 1");
+
+        Graph mutable = DataLoader.loadGraph(file.toString());
+        assertEquals(1, mutable.getReverseAdj(1).size());
+    }
+
+    @Test
+    void testBinaryGraphFile_RoundTrip(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 3).addEdge(0, 2, 1).addEdge(1, 3, 2).addEdge(2, 3, 5)
+                .build();
+        Path file = dir.resolve("graph" + BinaryGraphFile.EXTENSION);
+        BinaryGraphFile.write(file, graph, true, 2, "edge");
+
+        MappedGraph mapped = BinaryGraphFile.open(file);
+        assertEquals(4, mapped.getV());
+        assertEquals(4, mapped.getE());
+        assertEquals(2, mapped.getSource());
+        assertEquals("edge", mapped.getWeightModel());
+        assertTrue(mapped.isDirected());
+        assertEquals(3, mapped.target(mapped.edgeStart(1)));
+
+        CsrGraph loaded = DataLoader.loadCsr(file.toString());
+        assertTrue(loaded.isBufferBacked(), "Loading maps the file instead of copying it");
+        assertEquals(5, loaded.weight(loaded.edgeStart(2)));
+        assertEquals(2, loaded.reverse().outDegree(3));
+        assertArrayEquals(graph.getOffsets(), loaded.getOffsets());
+        assertArrayEquals(graph.getTargets(), loaded.getTargets());
+        assertArrayEquals(graph.getWeights(), loaded.getWeights());
+    }
+
+    @Test
+    void testGraphGenerator_SeededAndPlantsSccs() {
+        CsrGraph first = new GraphGenerator(7).plantedScc(1000, 5000, 5, 50);
+        CsrGraph second = new GraphGenerator(7).plantedScc(1000, 5000, 5, 50);
+        assertArrayEquals(first.getTargets(), second.getTargets(), "Same seed must give the same graph");
+        assertArrayEquals(first.getWeights(), second.getWeights());
+        assertEquals(5000, first.getE());
+
+        List<List<Integer>> sccs = new TarjanSCC(first, new Metrics()).findSccs();
+        assertEquals(1000 - 5 * 49, sccs.size(), "Five planted SCCs, all other vertices trivial");
+
+        CsrGraph dag = new GraphGenerator(7).dag(1000, 5000);
+        assertEquals(1000, new TopologicalSort(dag, new Metrics()).sort().size(), "Generated DAG must be acyclic");
+        assertEquals(5000, dag.getE());
+        // A 10-vertex DAG has only 45 vertex pairs.
+        assertThrows(IllegalArgumentException.class, () -> new GraphGenerator(7).dag(10, 46));
+    }
+
+    @Test
+    void testCondensation_AggregatesParallelEdges() {
+        Graph graph = new Graph(4);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(0, 2, 4);
+        graph.addEdge(1, 2, 9);
+        graph.addEdge(1, 3, 2);
+
+        TarjanSCC tarjan = new TarjanSCC(graph, new Metrics());
+        tarjan.findSccs();
+        int[] sccId = tarjan.getSccId();
+        int from = sccId[0];
+        int to = sccId[2];
+
+        CsrGraph max = tarjan.buildCondensation();
+        assertEquals(3, max.getV());
+        assertEquals(2, max.getE(), "Parallel edges between SCCs are merged");
+        assertEquals(9, weightOf(max, from, to));
+        assertEquals(4, weightOf(tarjan.buildCondensation(Condensation.Aggregation.MIN), from, to));
+        assertEquals(13, weightOf(tarjan.buildCondensation(Condensation.Aggregation.SUM), from, to));
+        assertEquals(2, weightOf(max, from, sccId[3]));
+    }
+
+    private static int weightOf(CsrGraph graph, int u, int v) {
+        for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+            if (graph.target(i) == v) {
+                return graph.weight(i);
+            }
+        }
+        return fail("Missing edge " + u + "->" + v);
+    }
+
+    @Test
+    void testIncrementalSCC_MatchesTarjanUnderRandomUpdates() {
+        int n = 40;
+        Random random = new Random(11);
+        IncrementalSCC dynamic = new IncrementalSCC(n, new Metrics());
+        List<int[]> edges = new ArrayList<>();
+
+        for (int step = 0; step < 600; step++) {
+            if (!edges.isEmpty() && random.nextInt(3) == 0) {
+                int[] edge = edges.remove(random.nextInt(edges.size()));
+                assertTrue(dynamic.removeEdge(edge[0], edge[1]));
+            } else {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                edges.add(new int[]{u, v});
+                dynamic.addEdge(u, v, 1 + random.nextInt(5));
+            }
+
+            CsrGraph snapshot = dynamic.toCsrSnapshot();
+            TarjanSCC tarjan = new TarjanSCC(snapshot, new Metrics());
+            assertEquals(tarjan.findSccs().size(), dynamic.componentCount(), "Component count at step " + step);
+            int[] sccId = tarjan.getSccId();
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    assertEquals(sccId[u] == sccId[v], dynamic.sameComponent(u, v));
+                }
+                for (int i = snapshot.edgeStart(u); i < snapshot.edgeEnd(u); i++) {
+                    int v = snapshot.target(i);
+                    if (!dynamic.sameComponent(u, v)) {
+                        assertTrue(dynamic.precedes(u, v), "Order violated by " + u + "->" + v + " at step " + step);
+                    }
+                }
+            }
+            assertEquals(tarjan.buildCondensation().getE(), dynamic.condensationEdgeCount());
+        }
+
+        CsrGraph condensation = dynamic.condensationSnapshot(Condensation.Aggregation.MAX);
+        assertEquals(dynamic.componentCount(), condensation.getV());
+        for (int c = 0; c < condensation.getV(); c++) {
+            for (int i = condensation.edgeStart(c); i < condensation.edgeEnd(c); i++) {
+                assertTrue(c < condensation.target(i), "Snapshot ids follow the topological order");
+            }
+        }
+    }
+
+    @Test
+    void testTopologicalSort_ParallelLevels() {
+        CsrGraph graph = new GraphGenerator(3).layered(10, 5000, 60_000);
+        TopologicalSort sequential = new TopologicalSort(graph, new Metrics());
+        int[] order = sequential.sortToArray();
+        int[] levels = sequential.getLevels();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TopologicalSort parallel = new TopologicalSort(graph, new Metrics());
+            int[] parallelOrder = parallel.sortParallel(pool);
+            assertEquals(graph.getV(), order.length);
+            assertEquals(graph.getV(), parallelOrder.length);
+            assertArrayEquals(levels, parallel.getLevels(), "Both modes must agree on vertex levels");
+
+            int[] position = new int[graph.getV()];
+            for (int i = 0; i < parallelOrder.length; i++) {
+                position[parallelOrder[i]] = i;
+            }
+            for (int u = 0; u < graph.getV(); u++) {
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = graph.target(i);
+                    assertTrue(position[u] < position[v], "Edge " + u + "->" + v + " out of order");
+                    assertTrue(levels[u] < levels[v]);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMultiSourceDAGPaths_MatchesSingleSource() {
+        CsrGraph graph = new GraphGenerator(11).dag(300, 1500);
+        List<Integer> order = new TopologicalSort(graph, new Metrics()).sort();
+        int[] sources = {0, 17, 42, 150, 299, 17};
+        Metrics batched = new Metrics();
+        MultiSourceDAGPaths engine = new MultiSourceDAGPaths(graph, batched, order);
+
+        MultiSourceDAGPaths.DistanceMatrix shortest = engine.shortestDistances(sources);
+        long shortestRelaxations = batched.getRelaxations();
+        MultiSourceDAGPaths.DistanceMatrix longest = engine.longestDistances(sources);
+        assertEquals(sources.length, shortest.rows());
+        Metrics single = new Metrics();
+        for (int r = 0; r < sources.length; r++) {
+            DAGShortestPath sp = new DAGShortestPath(graph, single, order);
+            sp.findShortestPaths(sources[r]);
+            DAGShortestPath lp = new DAGShortestPath(graph, new Metrics(), order);
+            lp.findLongestPaths(sources[r]);
+            for (int v = 0; v < graph.getV(); v++) {
+                assertEquals(sp.getDistance(v), shortest.get(r, v));
+                assertEquals(lp.getDistance(v), longest.get(r, v));
+            }
+        }
+        assertEquals(single.getRelaxations(), shortestRelaxations);
+
+        AtomicInteger rows = new AtomicInteger();
+        engine.forEachShortestRow(sources, (row, source, distances) -> {
+            assertEquals(sources[row], source);
+            for (int v = 0; v < distances.length; v++) {
+                assertEquals(shortest.get(row, v), distances[v]);
+            }
+            rows.incrementAndGet();
+        });
+        assertEquals(sources.length, rows.get());
+    }
+
+    @Test
+    void testCriticalPathAnalysis_SlackAndNodeWeights(@TempDir Path dir) throws IOException {
+        // 0 -> 1 -> 3 (2 + 5) and 0 -> 2 -> 3 (1 + 1): the upper branch is critical.
+        CsrGraph graph = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 2).addEdge(0, 2, 1).addEdge(1, 3, 5).addEdge(2, 3, 1)
+                .build();
+        List<Integer> order = new TopologicalSort(graph, new Metrics()).sort();
+        CriticalPathAnalysis cpm = new CriticalPathAnalysis(graph, new Metrics(), order);
+        cpm.analyze();
+        assertEquals(7, cpm.getProjectDuration());
+        assertArrayEquals(new long[]{0, 2, 1, 7}, cpm.getEarliestStart());
+        assertArrayEquals(new long[]{0, 2, 6, 7}, cpm.getLatestStart());
+        assertEquals(5, cpm.getSlack(2));
+        assertEquals(List.of(List.of(0, 1, 3)), cpm.criticalPaths(10));
+
+        Path file = dir.resolve("tasks.json");
+        Files.writeString(file, "{\"n\": 4, \"weight_model\": \"node\", \"node_weights\": [3, 1, 4, 2],"
+                + " \"edges\": [{\"u\": 0, \"v\": 1}, {\"u\": 0, \"v\": 2}, {\"u\": 1, \"v\": 3}, {\"u\": 2, \"v\": 3}]}");
+        DataLoader.GraphFile loaded = DataLoader.readGraph(file.toString());
+        CriticalPathAnalysis tasks = new CriticalPathAnalysis(loaded.graph, new Metrics(), order);
+        tasks.analyze(CriticalPathAnalysis.WeightModel.parse(loaded.weightModel), loaded.nodeWeights);
+        assertEquals(9, tasks.getProjectDuration());
+        assertEquals(7, tasks.getEarliestFinish(2));
+        assertEquals(3, tasks.getSlack(1));
+        assertEquals(List.of(List.of(0, 2, 3)), tasks.criticalPaths(10));
+    }
+
+    @Test
+    void testBinaryGraphFile_KeepsNodeWeights(@TempDir Path dir) throws IOException {
+        Path json = dir.resolve("tasks.json");
+        Files.writeString(json, "{\"n\": 4, \"weight_model\": \"node\", \"node_weights\": [3, 1, 4, 2],"
+                + " \"edges\": [{\"u\": 0, \"v\": 1}, {\"u\": 0, \"v\": 2}, {\"u\": 1, \"v\": 3}, {\"u\": 2, \"v\": 3}]}");
+        Path binary = dir.resolve("tasks" + BinaryGraphFile.EXTENSION);
+        BinaryGraphFile.write(binary, DataLoader.readGraph(json.toString()));
+
+        DataLoader.GraphFile loaded = DataLoader.readGraph(binary.toString());
+        assertEquals("node", loaded.weightModel);
+        assertArrayEquals(new int[]{3, 1, 4, 2}, loaded.nodeWeights);
+        List<Integer> order = new TopologicalSort(loaded.graph, new Metrics()).sort();
+        CriticalPathAnalysis tasks = new CriticalPathAnalysis(loaded.graph, new Metrics(), order);
+        tasks.analyze(CriticalPathAnalysis.WeightModel.parse(loaded.weightModel), loaded.nodeWeights);
+        assertEquals(9, tasks.getProjectDuration());
+        assertEquals(List.of(List.of(0, 2, 3)), tasks.criticalPaths(10));
+    }
+
+    @Test
+    void testRelaxationKernel_MatchesScalarWithParallelEdges() {
+        // Dense DAG with repeated targets so vector blocks contain duplicate lanes.
+        Random random = new Random(5);
+        CsrGraph.Builder builder = new CsrGraph.Builder(200);
+        for (int u = 0; u < 199; u++) {
+            for (int k = 0; k < 40; k++) {
+                int v = u + 1 + random.nextInt(Math.min(8, 199 - u));
+                builder.addEdge(u, v, 1 + random.nextInt(20));
+            }
+        }
+        CsrGraph graph = builder.build();
+        List<Integer> order = new TopologicalSort(graph, new Metrics()).sort();
+
+        RelaxationKernel best = RelaxationKernel.best();
+        for (boolean longest : new boolean[]{false, true}) {
+            Metrics scalarMetrics = new Metrics();
+            Metrics bestMetrics = new Metrics();
+            DAGShortestPath scalar = new DAGShortestPath(graph, scalarMetrics, order, RelaxationKernel.scalar());
+            DAGShortestPath fast = new DAGShortestPath(graph, bestMetrics, order, best);
+            if (longest) {
+                scalar.findLongestPaths(0);
+                fast.findLongestPaths(0);
+            } else {
+                scalar.findShortestPaths(0);
+                fast.findShortestPaths(0);
+            }
+            assertArrayEquals(scalar.getAllDistances(), fast.getAllDistances(), best.name());
+            assertEquals(scalar.reconstructPath(199), fast.reconstructPath(199));
+            assertEquals(scalarMetrics.getRelaxations(), bestMetrics.getRelaxations());
+        }
+    }
+
+    @Test
+    void testMetrics_PhasesCountersAndDisabledMode() {
+        CsrGraph graph = new GraphGenerator(21).plantedScc(2000, 8000, 50, 10);
+        Metrics metrics = new Metrics();
+        TarjanSCC tarjan = new TarjanSCC(graph, metrics);
+        tarjan.findSccs();
+        tarjan.buildCondensation();
+        assertEquals(graph.getV(), metrics.getDfsVisits());
+        assertEquals(graph.getE(), metrics.getEdgesProcessed());
+        assertEquals(1, metrics.getHistogram(Metrics.Phase.SCC).getCount());
+        assertEquals(1, metrics.getHistogram(Metrics.Phase.CONDENSATION).getCount());
+        assertTrue(metrics.getHistogram(Metrics.Phase.SCC).getPercentileNanos(50) > 0);
+
+        // One instance shared by many threads must not lose updates or overflow int.
+        Metrics shared = new Metrics();
+        IntStream.range(0, 64).parallel().forEach(i -> shared.incrementEdgesProcessed(Integer.MAX_VALUE));
+        assertEquals(64L * Integer.MAX_VALUE, shared.getEdgesProcessed());
+
+        Metrics disabled = Metrics.disabled();
+        new TarjanSCC(graph, disabled).findSccs();
+        assertFalse(disabled.isEnabled());
+        assertEquals(0, disabled.getDfsVisits());
+        assertEquals(0, disabled.getHistogram(Metrics.Phase.SCC).getCount());
+    }
+
+    @Test
+    void testPipelineRunner_ProcessesGlobAndWritesSummary(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("a_graph.json"), "{\"n\": 3, \"source\": 0,"
+                + " \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 1, \"v\": 0}, {\"u\": 1, \"v\": 2, \"w\": 5}]}");
+        Files.writeString(dir.resolve("b_graph.json"), "{\"n\": 2, \"edges\": [{\"u\": 0}]}");
+        Files.writeString(dir.resolve("notes.txt"), "not a graph");
+
+        List<Path> files = PipelineRunner.resolveInputs(dir.toString().replace('\\', '/') + "/*_graph.json");
+        assertEquals(2, files.size());
+
+        PipelineRunner runner = new PipelineRunner(2, 2, 1, dir.resolve("out"), true);
+        List<PipelineRunner.DatasetResult> results;
+        try {
+            results = runner.run(files);
+        } finally {
+            runner.shutdown();
+        }
+        PipelineRunner.DatasetResult ok = results.get(0);
+        assertNull(ok.error);
+        assertEquals(2, ok.sccCount);
+        assertEquals("5", ok.shortestDistance);
+        assertTrue(Files.exists(dir.resolve("out").resolve("condensed_a_graph.dot")));
+        assertNotNull(results.get(1).error, "Malformed file is reported, not thrown");
+
+        Path summary = dir.resolve("summary.csv");
+        PipelineRunner.writeSummary(summary, results);
+        List<String> lines = Files.readAllLines(summary);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith(files.get(0).toString() + ",3,3,0,2,2,2,2,1,5,5,"));
+    }
+
+    @Test
+    void testDotExporter_StreamsGzipAndTopSccs(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new CsrGraph.Builder(6)
+                .addEdge(0, 1, 1).addEdge(1, 0, 1).addEdge(1, 2, 4)
+                .addEdge(2, 3, 1).addEdge(3, 4, 1).addEdge(4, 2, 1).addEdge(4, 5, 7)
+                .build();
+        Path plain = dir.resolve("g.dot");
+        GraphUtils.exportToDot(graph, plain.toString());
+        String text = Files.readString(plain);
+        assertTrue(text.startsWith("digraph G {\n"));
+        assertTrue(text.contains("    4 -> 5 [label=\"7\"];\n"));
+        assertFalse(text.contains("truncated"));
+
+        TarjanSCC tarjan = new TarjanSCC(graph, new Metrics());
+        tarjan.findSccs();
+        CsrGraph condensation = tarjan.buildCondensation();
+        Path gz = dir.resolve("top.dot.gz");
+        new DotExporter().topSccs(2).maxLabelMembers(2).exportCondensation(condensation, tarjan.getSccId(), gz);
+        String top;
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(gz))) {
+            top = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        int big = tarjan.getSccId()[2];
+        int pair = tarjan.getSccId()[0];
+        assertTrue(top.contains("    " + big + " [shape=box, label=\"SCC " + big + "\\n{2,3,...+1}\"];"), top);
+        assertTrue(top.contains("    " + pair + " -> " + big + " [label=\"4\"];"), top);
+        assertTrue(top.endsWith("// truncated: 2 of 3 SCCs, 1 of 2 edges\n"), top);
+    }
+
+    @Test
+    void testAnalysisCache_HitsDiskAndInvalidates(@TempDir Path dir) throws IOException {
+        CsrGraph graph = new GraphGenerator(8).plantedScc(500, 2000, 10, 8);
+        Path file = dir.resolve("g" + BinaryGraphFile.EXTENSION);
+        BinaryGraphFile.write(file, graph, true, 0, "edge");
+        Path cacheDir = dir.resolve("cache");
+
+        AnalysisCache cache = new AnalysisCache(cacheDir, 1 << 20);
+        GraphAnalysis first = cache.load(file.toString(), new Metrics()).analysis;
+        assertSame(first, cache.getOrCompute(graph, new Metrics()), "Same content, same entry");
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getMemoryHits());
+
+        // A fresh process only has the disk layer.
+        AnalysisCache reopened = new AnalysisCache(cacheDir, 1 << 20);
+        GraphAnalysis fromDisk = reopened.getOrCompute(graph, new Metrics());
+        assertEquals(1, reopened.getDiskHits());
+        assertArrayEquals(first.getSccId(), fromDisk.getSccId());
+        assertArrayEquals(first.getTopoOrder(), fromDisk.getTopoOrder());
+        assertArrayEquals(first.getCondensation().getTargets(), fromDisk.getCondensation().getTargets());
+
+        assertTrue(reopened.invalidateFile(file.toString()));
+        reopened.getOrCompute(graph, new Metrics());
+        assertEquals(1, reopened.getMisses());
+
+        // Corrupt entries are recomputed: a negative SCC count, then an out-of-range SCC id.
+        Path entry = cacheDir.resolve(first.getKey() + AnalysisCache.EXTENSION);
+        for (int[] patch : new int[][]{{12, -1}, {20, 1 << 20}}) {
+            try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.WRITE)) {
+                ByteBuffer value = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                channel.write(value.putInt(0, patch[1]), patch[0]);
+            }
+            AnalysisCache corrupted = new AnalysisCache(cacheDir, 1 << 20);
+            assertArrayEquals(first.getSccId(), corrupted.getOrCompute(graph, new Metrics()).getSccId());
+            assertEquals(1, corrupted.getMisses());
+        }
+
+        // Entries larger than the memory budget are evicted, oldest first.
+        CsrGraph other = new GraphGenerator(9).plantedScc(500, 2000, 10, 8);
+        long otherBytes = GraphAnalysis.compute(null, other, new Metrics()).estimatedBytes();
+        AnalysisCache small = new AnalysisCache(null, Math.max(first.estimatedBytes(), otherBytes) + 16);
+        small.getOrCompute(graph, new Metrics());
+        small.getOrCompute(other, new Metrics());
+        assertEquals(1, small.getMemoryEntries());
+        small.getOrCompute(graph, new Metrics());
+        assertEquals(3, small.getMisses());
+    }
+
+    @Test
+    void testReachabilityIndex_BitsetAndGrailMatchBfs() {
+        CsrGraph graph = new GraphGenerator(17).plantedScc(1500, 4000, 40, 6);
+        GraphAnalysis analysis = GraphAnalysis.compute(null, graph, new Metrics());
+        ReachabilityIndex bitset = new ReachabilityIndex(analysis, new Metrics());
+        ReachabilityIndex grail = new ReachabilityIndex(analysis.getCondensation(), analysis.getSccId(), null,
+                new Metrics(), 0, 2, 7L);
+        assertEquals(ReachabilityIndex.Mode.BITSET, bitset.getMode());
+        assertEquals(ReachabilityIndex.Mode.GRAIL, grail.getMode());
+        assertTrue(grail.getIndexBytes() > 0 && grail.getBuildNanos() > 0);
+
+        Random random = new Random(1);
+        for (int q = 0; q < 60; q++) {
+            int u = random.nextInt(graph.getV());
+            boolean[] seen = new boolean[graph.getV()];
+            int[] queue = new int[graph.getV()];
+            int head = 0;
+            int tail = 0;
+            seen[u] = true;
+            queue[tail++] = u;
+            while (head < tail) {
+                int x = queue[head++];
+                for (int i = graph.edgeStart(x); i < graph.edgeEnd(x); i++) {
+                    if (!seen[graph.target(i)]) {
+                        seen[graph.target(i)] = true;
+                        queue[tail++] = graph.target(i);
+                    }
+                }
+            }
+            for (int v = 0; v < graph.getV(); v++) {
+                assertEquals(seen[v], bitset.canReach(u, v), u + " -> " + v);
+                assertEquals(seen[v], grail.canReach(u, v), u + " -> " + v);
+            }
+        }
+    }
+
+    @Test
+    void testPointToPointPaths_MatchFullScan() {
+        CsrGraph graph = new GraphGenerator(23).layered(20, 15, 900);
+        List<Integer> order = new TopologicalSort(graph, new Metrics()).sort();
+        DAGShortestPath local = new DAGShortestPath(graph, new Metrics(), order);
+        int[][] queries = {{0, 299}, {5, 200}, {40, 41}, {150, 20}, {7, 7}, {0, 299}};
+        for (int[] q : queries) {
+            DAGShortestPath full = new DAGShortestPath(graph, new Metrics(), order);
+            full.findShortestPaths(q[0]);
+            DAGShortestPath fullLongest = new DAGShortestPath(graph, new Metrics(), order);
+            fullLongest.findLongestPaths(q[0]);
+
+            local.findShortestPath(q[0], q[1]);
+            assertEquals(full.getDistance(q[1]), local.getDistance(q[1]), q[0] + " -> " + q[1]);
+            assertEquals(full.reconstructPath(q[1]), local.reconstructPath(q[1]));
+            local.findLongestPath(q[0], q[1]);
+            assertEquals(fullLongest.getDistance(q[1]), local.getDistance(q[1]), q[0] + " => " + q[1]);
+            assertEquals(fullLongest.reconstructPath(q[1]), local.reconstructPath(q[1]));
+        }
+
+        Metrics fullMetrics = new Metrics();
+        new DAGShortestPath(graph, fullMetrics, order).findShortestPaths(0);
+        Metrics localMetrics = new Metrics();
+        new DAGShortestPath(graph, localMetrics, order).findShortestPath(0, 30);
+        assertTrue(localMetrics.getRelaxations() < fullMetrics.getRelaxations());
+    }
+
+    @Test
+    void testSccDijkstra_MatchesPlainDijkstraWithVertexPaths() {
+        CsrGraph graph = new GraphGenerator(29).plantedScc(400, 1600, 8, 12);
+        SccDijkstra engine = new SccDijkstra(graph, new Metrics());
+        Dijkstra reference = new Dijkstra(graph, new Metrics());
+        for (int s : new int[]{0, 37, 250}) {
+            engine.findShortestPaths(s);
+            reference.findShortestPaths(s);
+            for (int v = 0; v < graph.getV(); v++) {
+                assertEquals(reference.getDistance(v), engine.getDistance(v), s + " -> " + v);
+                List<Integer> path = engine.reconstructPath(v);
+                if (engine.getDistance(v) == SccDijkstra.INF) {
+                    assertTrue(path.isEmpty());
+                    continue;
+                }
+                assertEquals(s, path.get(0));
+                assertEquals(v, path.get(path.size() - 1));
+                long length = 0;
+                for (int k = 0; k + 1 < path.size(); k++) {
+                    int best = Integer.MAX_VALUE;
+                    for (int i = graph.edgeStart(path.get(k)); i < graph.edgeEnd(path.get(k)); i++) {
+                        if (graph.target(i) == path.get(k + 1)) {
+                            best = Math.min(best, graph.weight(i));
+                        }
+                    }
+                    length += best;
+                }
+                assertEquals(engine.getDistance(v), length);
+            }
+        }
+
+        // Negative weights are fine between SCCs, not inside one.
+        Graph small = new Graph(4);
+        small.addEdge(0, 1, 2);
+        small.addEdge(1, 0, 2);
+        small.addEdge(1, 2, -5);
+        small.addEdge(0, 3, 1);
+        small.addEdge(3, 2, 1);
+        SccDijkstra mixed = new SccDijkstra(small.toCsr(), new Metrics());
+        mixed.findShortestPaths(0);
+        assertEquals(-3, mixed.getDistance(2));
+        assertEquals(List.of(0, 1, 2), mixed.reconstructPath(2));
+        small.addEdge(2, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> new SccDijkstra(small.toCsr(), new Metrics()));
+    }
+
+    @Test
+    void testPrimitiveResults_PartitionBuffersAndPathForest() {
+        CsrGraph graph = new GraphGenerator(31).plantedScc(300, 1200, 6, 10);
+        Metrics metrics = new Metrics();
+        TarjanSCC tarjan = new TarjanSCC(graph, metrics);
+        SccPartition partition = tarjan.findPartition();
+        List<List<Integer>> sccs = tarjan.findSccs();
+        assertEquals(sccs, partition.toLists());
+        assertEquals(graph.getE(), metrics.getEdgesProcessed(), "A repeated call scans no edges");
+        assertEquals(graph.getV(), partition.getMembers().length);
+        for (int c = 0; c < partition.count(); c++) {
+            IntBuffer view = partition.members(c);
+            assertEquals(sccs.get(c).size(), view.remaining());
+            assertEquals((int) sccs.get(c).get(0), view.get(0));
+        }
+        SccPartition parallel = new ParallelSCC(graph, new Metrics()).findPartition();
+        assertEquals(partition.count(), parallel.count());
+
+        CsrGraph dag = new GraphGenerator(37).dag(400, 2000);
+        List<Integer> order = new TopologicalSort(dag, new Metrics()).sort();
+        DAGShortestPath paths = new DAGShortestPath(dag, new Metrics(), order);
+        paths.findShortestPaths(3);
+        int[] copy = paths.getAllDistances();
+        copy[0] = 12345;
+        assertNotEquals(12345, paths.getDistance(0));
+        IntBuffer distances = paths.distances();
+        assertEquals(paths.getDistance(50), distances.get(50));
+        assertThrows(ReadOnlyBufferException.class, () -> distances.put(0, 1));
+
+        PathForest forest = paths.pathForest();
+        int[] buffer = new int[dag.getV()];
+        AtomicInteger visited = new AtomicInteger();
+        forest.forEachPath((target, path, length) -> {
+            List<Integer> expected = paths.reconstructPath(target);
+            assertEquals(expected.size(), length);
+            assertEquals(expected, Arrays.stream(path, 0, length).boxed().collect(Collectors.toList()));
+            assertEquals(length, paths.reconstructPath(target, buffer));
+            assertArrayEquals(Arrays.copyOf(path, length), Arrays.copyOf(buffer, length));
+            visited.incrementAndGet();
+        });
+        int reachable = 0;
+        for (int v = 0; v < dag.getV(); v++) {
+            if (!paths.reconstructPath(v).isEmpty()) {
+                reachable++;
+            } else {
+                assertFalse(forest.isReachable(v));
+                assertEquals(0, paths.reconstructPath(v, buffer));
+            }
+        }
+        assertEquals(reachable, visited.get());
+        int far = IntStream.range(0, dag.getV()).filter(v -> forest.pathLength(v) > 1).findFirst().orElseThrow();
+        assertThrows(IllegalArgumentException.class, () -> forest.pathTo(far, new int[1]));
+    }
+
+    @Test
+    void testSemiringDAGPaths_AgreesWithDedicatedPassesAndSaturates() {
+        CsrGraph dag = new GraphGenerator(41).dag(300, 1500);
+        List<Integer> order = new TopologicalSort(dag, new Metrics()).sort();
+        SemiringDAGPaths engine = new SemiringDAGPaths(dag, new Metrics(), order);
+        DAGShortestPath shortest = new DAGShortestPath(dag, new Metrics(), order);
+        shortest.findShortestPaths(0);
+        DAGShortestPath longest = new DAGShortestPath(dag, new Metrics(), order);
+        longest.findLongestPaths(0);
+
+        SemiringDAGPaths.LongPaths minPlus = engine.run(LongSemiring.MIN_PLUS, 0);
+        SemiringDAGPaths.LongPaths maxPlus = engine.run(LongSemiring.MAX_PLUS, 0);
+        SemiringDAGPaths.DoublePaths doubleMin = engine.run(DoubleSemiring.MIN_PLUS, 0);
+        int[] buffer = new int[dag.getV()];
+        for (int v = 0; v < dag.getV(); v++) {
+            boolean reachable = !shortest.reconstructPath(v).isEmpty();
+            assertEquals(reachable, minPlus.isReachable(v));
+            if (reachable) {
+                assertEquals(shortest.getDistance(v), minPlus.get(v));
+                assertEquals(longest.getDistance(v), maxPlus.get(v));
+                assertEquals(shortest.getDistance(v), doubleMin.get(v));
+                int length = minPlus.pathForest().pathTo(v, buffer);
+                assertEquals(shortest.reconstructPath(v), Arrays.stream(buffer, 0, length).boxed().collect(Collectors.toList()));
+            }
+        }
+
+        // A user-defined semiring goes through the generic loop and must agree with the built-in one.
+        LongSemiring custom = new LongSemiring() {
+            public long zero() {
+                return Long.MAX_VALUE;
+            }
+
+            public long one() {
+                return 0;
+            }
+
+            public long plus(long a, long b) {
+                return Math.min(a, b);
+            }
+
+            public long times(long a, int weight) {
+                return LongSemiring.saturatingAdd(a, weight);
+            }
+
+            public String name() {
+                return "custom-min-plus";
+            }
+        };
+        SemiringDAGPaths.LongPaths generic = engine.run(custom, 0);
+        assertEquals(minPlus.values(), generic.values());
+        for (int v = 0; v < dag.getV(); v++) {
+            assertEquals(minPlus.pathForest().parent(v), generic.pathForest().parent(v));
+        }
+
+        // Diamond chain: 2^20 paths from 0 to the end, widest one limited by the narrowest edge.
+        Graph chain = new Graph(41);
+        for (int k = 0; k < 40; k += 2) {
+            chain.addEdge(k, k + 1, 5 + k);
+            chain.addEdge(k, k + 2, 3);
+            chain.addEdge(k + 1, k + 2, 100);
+        }
+        List<Integer> chainOrder = IntStream.range(0, 41).boxed().collect(Collectors.toList());
+        SemiringDAGPaths chainEngine = new SemiringDAGPaths(chain.toCsr(), new Metrics(), chainOrder);
+        assertEquals(1L << 20, chainEngine.run(LongSemiring.countingModulo(1_000_000_007L), 0).get(40));
+        assertEquals((1L << 20) % 1000, chainEngine.run(LongSemiring.countingModulo(1000), 0).get(40));
+        assertEquals(5, chainEngine.run(LongSemiring.BOTTLENECK, 0).get(40));
+        assertEquals(5.0, chainEngine.run(DoubleSemiring.BOTTLENECK, 0).get(40));
+        assertThrows(IllegalStateException.class,
+                () -> chainEngine.run(LongSemiring.countingModulo(7), 0).pathForest());
+
+        // Two edges of 2^30 overflow int distances; long ones hold the sum and saturate at the limit.
+        Graph heavy = new Graph(3);
+        heavy.addEdge(0, 1, 1 << 30);
+        heavy.addEdge(1, 2, 1 << 30);
+        SemiringDAGPaths heavyEngine = new SemiringDAGPaths(heavy.toCsr(), new Metrics(), List.of(0, 1, 2));
+        assertEquals(1L << 31, heavyEngine.run(LongSemiring.MAX_PLUS, 0).get(2));
+        assertEquals(Long.MAX_VALUE - 1, LongSemiring.saturatingAdd(Long.MAX_VALUE - 5, 10));
+        assertEquals(Long.MIN_VALUE + 1, LongSemiring.saturatingAdd(Long.MIN_VALUE + 5, -10));
+    }
+
+    @Test
+    void testKBestPaths_MatchesBruteForceEnumeration() {
+        CsrGraph dag = new GraphGenerator(43).dag(14, 40);
+        List<Integer> order = new TopologicalSort(dag, new Metrics()).sort();
+        int source = order.get(0);
+        List<Long> all = new ArrayList<>();
+        List<List<Long>> perTarget = new ArrayList<>();
+        for (int v = 0; v < dag.getV(); v++) {
+            perTarget.add(new ArrayList<>());
+        }
+        // Every source path by brute force: stack entries are (vertex, length so far).
+        List<long[]> stack = new ArrayList<>();
+        stack.add(new long[]{source, 0});
+        while (!stack.isEmpty()) {
+            long[] top = stack.remove(stack.size() - 1);
+            int u = (int) top[0];
+            perTarget.get(u).add(top[1]);
+            for (int i = dag.edgeStart(u); i < dag.edgeEnd(u); i++) {
+                stack.add(new long[]{dag.target(i), top[1] + dag.weight(i)});
+            }
+        }
+
+        int k = 5;
+        KBestPaths shortest = new KBestPaths(dag, new Metrics(), order, k);
+        shortest.findShortestPaths(source);
+        KBestPaths longest = new KBestPaths(dag, new Metrics(), order, k);
+        longest.findLongestPaths(source);
+        int[] buffer = new int[dag.getV()];
+        for (int v = 0; v < dag.getV(); v++) {
+            List<Long> lengths = perTarget.get(v);
+            lengths.sort(null);
+            int expected = Math.min(k, lengths.size());
+            assertEquals(expected, shortest.pathCount(v));
+            assertEquals(expected, longest.pathCount(v));
+            List<List<Integer>> seen = new ArrayList<>();
+            for (int r = 0; r < expected; r++) {
+                assertEquals(lengths.get(r), shortest.getLength(v, r));
+                assertEquals(lengths.get(lengths.size() - 1 - r), longest.getLength(v, r));
+
+                int n = longest.reconstructPath(v, r, buffer);
+                assertEquals(source, buffer[0]);
+                assertEquals(v, buffer[n - 1]);
+                long total = 0;
+                for (int j = 0; j + 1 < n; j++) {
+                    long best = Long.MIN_VALUE;
+                    for (int i = dag.edgeStart(buffer[j]); i < dag.edgeEnd(buffer[j]); i++) {
+                        if (dag.target(i) == buffer[j + 1]) {
+                            best = Math.max(best, dag.weight(i));
+                        }
+                    }
+                    total += best;
+                }
+                assertEquals(longest.getLength(v, r), total);
+                List<Integer> path = Arrays.stream(buffer, 0, n).boxed().collect(Collectors.toList());
+                assertFalse(seen.contains(path), "duplicate path " + path);
+                seen.add(path);
+            }
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> shortest.getLength(source, 1));
+
+        DAGShortestPath single = new DAGShortestPath(dag, new Metrics(), order);
+        single.findShortestPaths(source);
+        KBestPaths one = new KBestPaths(dag, new Metrics(), order, 1);
+        one.findShortestPaths(source);
+        for (int v = 0; v < dag.getV(); v++) {
+            if (one.pathCount(v) > 0) {
+                assertEquals(single.getDistance(v), one.getLength(v, 0));
+            }
+        }
+    }
+
+    @Test
+    void testWavefrontDAGPaths_MatchesSequentialExactly() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (CsrGraph dag : List.of(new GraphGenerator(47).layered(30, 40, 4000),
+                    new GraphGenerator(53).dag(600, 4000))) {
+                List<Integer> order = new TopologicalSort(dag, new Metrics()).sort();
+                int[] orderArray = order.stream().mapToInt(Integer::intValue).toArray();
+                Metrics metrics = new Metrics();
+                WavefrontDAGPaths wavefront = new WavefrontDAGPaths(dag, metrics, orderArray, pool, 1);
+                assertTrue(wavefront.getLevelCount() > 1);
+                for (int s : new int[]{order.get(0), order.get(5), order.get(order.size() / 2)}) {
+                    DAGShortestPath shortest = new DAGShortestPath(dag, new Metrics(), order);
+                    shortest.findShortestPaths(s);
+                    wavefront.findShortestPaths(s);
+                    assertArrayEquals(shortest.getAllDistances(), wavefront.getAllDistances());
+                    DAGShortestPath longest = new DAGShortestPath(dag, new Metrics(), order);
+                    longest.findLongestPaths(s);
+                    for (int v = 0; v < dag.getV(); v++) {
+                        assertEquals(shortest.reconstructPath(v), wavefront.reconstructPath(v));
+                    }
+                    wavefront.findLongestPaths(s);
+                    assertArrayEquals(longest.getAllDistances(), wavefront.getAllDistances());
+                    PathForest forest = wavefront.pathForest();
+                    int[] expected = new int[dag.getV()];
+                    int[] actual = new int[dag.getV()];
+                    for (int v = 0; v < dag.getV(); v++) {
+                        assertEquals(longest.reconstructPath(v), wavefront.reconstructPath(v));
+                        int length = longest.reconstructPath(v, expected);
+                        assertEquals(length, wavefront.reconstructPath(v, actual));
+                        assertArrayEquals(Arrays.copyOf(expected, length), Arrays.copyOf(actual, length));
+                        assertEquals(length, forest.pathTo(v, actual));
+                    }
+                }
+                assertTrue(metrics.getRelaxations() > 0);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testVertexRelabeling_RunsInNewIdsAndMapsBack() {
+        CsrGraph graph = new GraphGenerator(59).plantedScc(500, 2500, 10, 15);
+        GraphAnalysis original = GraphAnalysis.compute(null, graph, new Metrics());
+        SccDijkstra reference = new SccDijkstra(graph, new Metrics(), original);
+        int source = 7;
+        reference.findShortestPaths(source);
+
+        List<VertexRelabeling> relabelings = List.of(
+                VertexRelabeling.bfs(graph),
+                VertexRelabeling.byDegree(graph),
+                VertexRelabeling.byComponentOrder(original.getSccId(), original.getTopoOrder()));
+        for (VertexRelabeling relabeling : relabelings) {
+            CsrGraph permuted = relabeling.apply(graph);
+            assertEquals(graph.getE(), permuted.getE());
+            GraphAnalysis restored = GraphAnalysis.compute(null, permuted, new Metrics()).restore(relabeling);
+            for (int u = 0; u < graph.getV(); u++) {
+                for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                    int v = graph.target(i);
+                    assertEquals(original.getSccId()[u] == original.getSccId()[v],
+                            restored.getSccId()[u] == restored.getSccId()[v]);
+                }
+            }
+
+            SccDijkstra engine = new SccDijkstra(permuted, new Metrics());
+            engine.findShortestPaths(relabeling.toNew(source));
+            assertArrayEquals(reference.getAllDistances(), relabeling.mapToOld(engine.getAllDistances()));
+            int target = graph.getV() - 1;
+            List<Integer> path = relabeling.mapPathToOld(engine.reconstructPath(relabeling.toNew(target)));
+            assertEquals(reference.reconstructPath(target).isEmpty(), path.isEmpty());
+        }
+
+        // Condensation order puts every edge between components forward in the new ids.
+        VertexRelabeling byComponents = relabelings.get(2);
+        for (int u = 0; u < graph.getV(); u++) {
+            for (int i = graph.edgeStart(u); i < graph.edgeEnd(u); i++) {
+                int v = graph.target(i);
+                if (original.getSccId()[u] != original.getSccId()[v]) {
+                    assertTrue(byComponents.toNew(u) < byComponents.toNew(v));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> VertexRelabeling.fromNewIds(new int[]{0, 2, 2}));
+    }
+}